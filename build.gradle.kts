@@ -3,6 +3,11 @@
  */
 import org.gradle.jvm.tasks.Jar
 
+plugins {
+    // JMH benchmarks live in src/jmh/java. Run them with ./gradlew jmh
+    id("me.champeau.jmh") version "0.7.2"
+}
+
 group = "ca.nicecube"
 version = "1.0.2"
 
@@ -31,6 +36,24 @@ repositories {
 dependencies {
     // Local Hytale server API jar (override with -Phytale.server.jar=...).
     compileOnly(files(hytaleServerJar))
+
+    // Benchmarks run outside the server, so they need the API jar on their runtime classpath.
+    jmh(files(hytaleServerJar))
+
+    // Unit tests cover the server-free scan classes; the API jar supplies ChunkUtil and fastutil at runtime.
+    testImplementation(files(hytaleServerJar))
+    testImplementation(platform("org.junit:junit-bom:5.11.3"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.named<Test>("test") {
+    useJUnitPlatform()
+}
+
+jmh {
+    // Narrow a run with -Pjmh.includes=<regex>, e.g. -Pjmh.includes=ChunkOrderBenchmark
+    includes.set(listOf(providers.gradleProperty("jmh.includes").getOrElse(".*")))
 }
 
 tasks.named<Jar>("jar") {
@@ -0,0 +1,136 @@
+package ca.nicecube.fixbadmod.scan;
+
+import ca.nicecube.fixbadmod.config.FixBadModConfig;
+import ca.nicecube.fixbadmod.config.FixBadModTemplateConfig;
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Rule sets and block id streams shared by the benchmarks.
+ *
+ * <p>Ids follow what a scanned chunk looks like: mostly a handful of common vanilla blocks, a small share of ids that
+ * some rule matches, and a few ids of other mods that no rule covers.
+ */
+final class BenchmarkRules {
+    static final String NOCUBE_TAVERN = "nocube_tavern";
+    static final String SYNTHETIC_10K = "synthetic-10k";
+
+    private static final Gson GSON = new Gson();
+    private static final String TEMPLATE_RESOURCE = "templates/nocube_tavern.json";
+    private static final int SYNTHETIC_RULE_COUNT = 10_000;
+    private static final String[] VANILLA_IDS = {
+        "Rock_Stone",
+        "Soil_Dirt",
+        "Soil_Grass",
+        "Rock_Bedrock",
+        "Soil_Sand",
+        "Fluid_Water",
+        "Rock_Sandstone",
+        "Plant_Grass_Sharp",
+        "Wood_Oak_Trunk",
+        "Plant_Leaves_Oak",
+        "Rock_Basalt",
+        "Ore_Iron_Stone",
+        "Furniture_Crude_Chest_Small",
+        "Deco_Torch"
+    };
+    private static final int MATCHING_PERCENT = 8;
+    private static final int FOREIGN_MOD_PERCENT = 2;
+
+    private BenchmarkRules() {
+    }
+
+    static FixBadModConfig config(String ruleSet) {
+        List<FixBadModConfig.Rule> rules = switch (ruleSet) {
+            case NOCUBE_TAVERN -> templateRules();
+            case SYNTHETIC_10K -> syntheticRules(SYNTHETIC_RULE_COUNT, 42L);
+            default -> throw new IllegalArgumentException("Unknown rule set: " + ruleSet);
+        };
+
+        FixBadModConfig config = FixBadModConfig.defaults();
+        config.appendRules(rules);
+        config.normalize();
+        return config;
+    }
+
+    /**
+     * {@code count} ids drawn from the chunk distribution; matching ids are derived from {@code rules}.
+     */
+    static String[] chunkIds(List<CompiledRule> rules, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            int roll = random.nextInt(100);
+            if (roll < MATCHING_PERCENT && !rules.isEmpty()) {
+                ids[i] = matchingId(rules.get(random.nextInt(rules.size())));
+            } else if (roll < MATCHING_PERCENT + FOREIGN_MOD_PERCENT) {
+                ids[i] = "OtherMod_Block_" + random.nextInt(500);
+            } else {
+                ids[i] = vanillaId(random);
+            }
+        }
+        return ids;
+    }
+
+    static String vanillaId(SplittableRandom random) {
+        // Squaring skews the pick towards the first, most common vanilla ids.
+        double skewed = random.nextDouble();
+        return VANILLA_IDS[(int) (skewed * skewed * VANILLA_IDS.length)];
+    }
+
+    /**
+     * An id that {@code rule} matches.
+     */
+    static String matchingId(CompiledRule rule) {
+        return switch (rule.mode) {
+            case EXACT -> rule.match;
+            case PREFIX -> rule.match + "_Variant";
+            case CONTAINS -> "Deco_" + rule.match + "_Large";
+        };
+    }
+
+    private static List<FixBadModConfig.Rule> templateRules() {
+        try (InputStream in = BenchmarkRules.class.getClassLoader().getResourceAsStream(TEMPLATE_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing resource " + TEMPLATE_RESOURCE);
+            }
+
+            String json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            if (json.startsWith("\uFEFF")) {
+                json = json.substring(1);
+            }
+            return GSON.fromJson(json, FixBadModTemplateConfig.class).getRules();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Mod-style rules: 60% exact, 30% prefix and 10% contains, all deleting.
+     */
+    private static List<FixBadModConfig.Rule> syntheticRules(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            int roll = random.nextInt(10);
+            String mode = roll < 6 ? "exact" : roll < 9 ? "prefix" : "contains";
+            String match = String.format("Mod%03d_%s_%05d", random.nextInt(200), roll < 9 ? "Block" : "Part", i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"enabled\":true,\"match\":\"")
+                .append(match)
+                .append("\",\"mode\":\"")
+                .append(mode)
+                .append("\",\"replaceWith\":\"__DELETE__\"}");
+        }
+        json.append(']');
+        return Arrays.asList(GSON.fromJson(json.toString(), FixBadModConfig.Rule[].class));
+    }
+}
@@ -0,0 +1,204 @@
+package ca.nicecube.fixbadmod.scan;
+
+import com.hypixel.hytale.math.util.ChunkUtil;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-chunk load latency of a full queue pass for each {@link ChunkOrder}.
+ *
+ * <p>Writes a grid of synthetic region files, discovers them through {@link RegionFileIndex}, and "loads" each queued
+ * chunk by reading its slot entry and blob through a small LRU of open region channels, the way a chunk store keeps
+ * a handful of region files open.
+ *
+ * <p>This is a synthetic model: the LRU stands in for the server's file handles and page cache, not for
+ * {@code ChunkStore} residency, and no chunk is decoded. It shows how often each order switches region files; it does
+ * not measure scan time on a live server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkOrderBenchmark {
+    private static final int REGIONS_PER_SIDE = 6;
+    private static final int SLOT_COUNT = RegionFileIndex.REGION_SIZE * RegionFileIndex.REGION_SIZE;
+    private static final int CHUNK_COUNT = REGIONS_PER_SIDE * REGIONS_PER_SIDE * SLOT_COUNT;
+    private static final int BLOB_BYTES = 2048;
+    private static final byte[] MAGIC = "HytaleIndexedStorage".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_SIZE = MAGIC.length + 3 * Integer.BYTES;
+    private static final int DATA_OFFSET = HEADER_SIZE + SLOT_COUNT * Integer.BYTES;
+
+    @Param({"index", "region-morton", "region-hilbert"})
+    public String order;
+
+    @Param({"4"})
+    public int openRegionFiles;
+
+    private Path chunksPath;
+    private long[] queue;
+    private RegionChannelCache channels;
+    private final ByteBuffer slotBuffer = ByteBuffer.allocate(Integer.BYTES);
+    private final ByteBuffer blobBuffer = ByteBuffer.allocate(BLOB_BYTES);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.chunksPath = Files.createTempDirectory("fixbadmod-chunk-order");
+        int firstRegion = -REGIONS_PER_SIDE / 2;
+        for (int regionX = firstRegion; regionX < firstRegion + REGIONS_PER_SIDE; regionX++) {
+            for (int regionZ = firstRegion; regionZ < firstRegion + REGIONS_PER_SIDE; regionZ++) {
+                writeRegionFile(this.chunksPath.resolve(regionX + "." + regionZ + ".region.bin"));
+            }
+        }
+
+        long[] discovered = new long[CHUNK_COUNT];
+        int count = 0;
+        try (Stream<Path> stream = Files.list(this.chunksPath)) {
+            for (Path path : stream.filter(RegionFileIndex::isRegionFile).toList()) {
+                long[] chunkIndexes = RegionFileIndex.readOccupiedChunks(path);
+                System.arraycopy(chunkIndexes, 0, discovered, count, chunkIndexes.length);
+                count += chunkIndexes.length;
+            }
+        }
+        if (count != CHUNK_COUNT) {
+            throw new IllegalStateException("Discovered " + count + " chunks, expected " + CHUNK_COUNT);
+        }
+
+        ChunkOrder.from(this.order).sort(discovered);
+        this.queue = discovered;
+        this.channels = new RegionChannelCache(this.openRegionFiles);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.channels.closeAll();
+        try (Stream<Path> stream = Files.walk(this.chunksPath)) {
+            for (Path path : stream.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK_COUNT)
+    public long loadQueue() throws IOException {
+        long checksum = 0L;
+        for (long chunkIndex : this.queue) {
+            checksum += this.loadChunk(chunkIndex);
+        }
+        return checksum;
+    }
+
+    private long loadChunk(long chunkIndex) throws IOException {
+        int chunkX = ChunkUtil.xOfChunkIndex(chunkIndex);
+        int chunkZ = ChunkUtil.zOfChunkIndex(chunkIndex);
+        int regionX = Math.floorDiv(chunkX, RegionFileIndex.REGION_SIZE);
+        int regionZ = Math.floorDiv(chunkZ, RegionFileIndex.REGION_SIZE);
+        int slot = Math.floorMod(chunkX, RegionFileIndex.REGION_SIZE) +
+            Math.floorMod(chunkZ, RegionFileIndex.REGION_SIZE) * RegionFileIndex.REGION_SIZE;
+        FileChannel channel = this.channels.get(this.chunksPath, regionX, regionZ);
+
+        this.slotBuffer.clear();
+        channel.read(this.slotBuffer, HEADER_SIZE + (long) slot * Integer.BYTES);
+        int firstSegment = this.slotBuffer.getInt(0);
+
+        this.blobBuffer.clear();
+        channel.read(this.blobBuffer, DATA_OFFSET + (long) (firstSegment - 1) * BLOB_BYTES);
+        return this.blobBuffer.get(0) + this.blobBuffer.get(BLOB_BYTES - 1);
+    }
+
+    private static void writeRegionFile(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(DATA_OFFSET + SLOT_COUNT * BLOB_BYTES);
+        buffer.put(MAGIC);
+        buffer.putInt(1);
+        buffer.putInt(SLOT_COUNT);
+        buffer.putInt(BLOB_BYTES);
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            buffer.putInt(slot + 1);
+        }
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            for (int i = 0; i < BLOB_BYTES; i++) {
+                buffer.put((byte) (slot + i));
+            }
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * LRU of open region channels; evicting one closes it, so a queue that jumps between regions pays for reopening.
+     */
+    private static final class RegionChannelCache extends LinkedHashMap<Long, FileChannel> {
+        private final int capacity;
+
+        private RegionChannelCache(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        private FileChannel get(Path chunksPath, int regionX, int regionZ) throws IOException {
+            long key = ChunkUtil.indexChunk(regionX, regionZ);
+            FileChannel channel = this.get(key);
+            if (channel == null) {
+                channel = FileChannel.open(
+                    chunksPath.resolve(regionX + "." + regionZ + ".region.bin"),
+                    StandardOpenOption.READ
+                );
+                this.put(key, channel);
+            }
+            return channel;
+        }
+
+        private void closeAll() throws IOException {
+            for (FileChannel channel : this.values()) {
+                channel.close();
+            }
+            this.clear();
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, FileChannel> eldest) {
+            if (this.size() <= this.capacity) {
+                return false;
+            }
+
+            try {
+                eldest.getValue().close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return true;
+        }
+    }
+}
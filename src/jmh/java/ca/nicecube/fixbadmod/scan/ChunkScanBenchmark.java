@@ -0,0 +1,135 @@
+package ca.nicecube.fixbadmod.scan;
+
+import ca.nicecube.fixbadmod.config.FixBadModConfig;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Block and container passes of a SCAN job over in-memory chunks. The primary score is blocks/s; the
+ * {@code matches} counter is matches/s.
+ *
+ * <p>Each chunk is solid up to {@link #SOLID_HEIGHT} and air above. {@code modBlockDensity} is the share of solid
+ * blocks, and of filled container slots, that a rule of the shipped template matches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkScanBenchmark {
+    private static final int CHUNK_COUNT = 8;
+    private static final int BLOCKS_PER_CHUNK = ChunkUtil.SIZE * ChunkUtil.SIZE * ChunkUtil.HEIGHT;
+    private static final int SOLID_HEIGHT = 128;
+    private static final int CONTAINER_SLOTS = 27;
+    private static final String CONTAINER_BLOCK_ID = "Furniture_Crude_Chest_Small";
+
+    @Param({"0", "0.001", "0.01"})
+    public double modBlockDensity;
+
+    @Param({"0", "64"})
+    public int containersPerChunk;
+
+    private ChunkScanner scanner;
+    private InMemoryChunk[] chunks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        FixBadModConfig config = BenchmarkRules.config(BenchmarkRules.NOCUBE_TAVERN);
+        List<CompiledRule> rules = new RuleCompiler(HytaleLogger.forEnclosingClass()).compile(config);
+        InMemoryBlockTypes blockTypes = new InMemoryBlockTypes();
+        this.scanner = new ChunkScanner(
+            WorldSanitizerService.JobMode.SCAN,
+            rules,
+            blockTypes,
+            config.getScan().getMaxReplacementsPerChunk(),
+            config.getScan().isAutoDeleteUnknownKeys()
+        );
+
+        SplittableRandom random = new SplittableRandom(17L);
+        this.chunks = new InMemoryChunk[CHUNK_COUNT];
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            this.chunks[i] = this.buildChunk(blockTypes, rules, random);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK_COUNT * BLOCKS_PER_CHUNK)
+    public int scanChunks(MatchCounter counter) {
+        int matches = 0;
+        for (InMemoryChunk chunk : this.chunks) {
+            ChunkScanCursor cursor = new ChunkScanCursor();
+            cursor.componentBlocks = this.scanner.componentBlocks(chunk);
+            this.scanner.scanBlocks(chunk, cursor, Long.MAX_VALUE);
+            matches += cursor.matches;
+        }
+        counter.matches += matches;
+        return matches;
+    }
+
+    private InMemoryChunk buildChunk(InMemoryBlockTypes blockTypes, List<CompiledRule> rules, SplittableRandom random) {
+        InMemoryChunk chunk = new InMemoryChunk(blockTypes);
+        for (int y = ChunkUtil.MIN_Y; y < ChunkUtil.MIN_Y + SOLID_HEIGHT; y++) {
+            for (int z = 0; z < ChunkUtil.SIZE; z++) {
+                for (int x = 0; x < ChunkUtil.SIZE; x++) {
+                    chunk.setBlock(x, y, z, this.pickId(rules, random));
+                }
+            }
+        }
+
+        for (int i = 0; i < this.containersPerChunk; i++) {
+            String[] items = new String[CONTAINER_SLOTS];
+            for (int slot = 0; slot < CONTAINER_SLOTS; slot++) {
+                if (random.nextBoolean()) {
+                    items[slot] = this.pickId(rules, random);
+                }
+            }
+            chunk.putContainer(
+                random.nextInt(ChunkUtil.SIZE),
+                ChunkUtil.MIN_Y + random.nextInt(SOLID_HEIGHT),
+                random.nextInt(ChunkUtil.SIZE),
+                CONTAINER_BLOCK_ID,
+                items
+            );
+        }
+        return chunk;
+    }
+
+    private String pickId(List<CompiledRule> rules, SplittableRandom random) {
+        if (random.nextDouble() < this.modBlockDensity) {
+            return BenchmarkRules.matchingId(rules.get(random.nextInt(rules.size())));
+        }
+        return BenchmarkRules.vanillaId(random);
+    }
+
+    /**
+     * Matches found, reported by JMH as a rate next to the blocks/s score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class MatchCounter {
+        public long matches;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.matches = 0L;
+        }
+    }
+}
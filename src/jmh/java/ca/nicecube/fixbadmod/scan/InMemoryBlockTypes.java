@@ -0,0 +1,51 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Block-type registry for {@link InMemoryChunk}: index {@code 0} is the empty block, every other id gets the next
+ * index the first time it is seen.
+ */
+final class InMemoryBlockTypes implements BlockTypeLookup {
+    static final String EMPTY_ID = "Empty";
+
+    private final List<String> ids = new ArrayList<>();
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    InMemoryBlockTypes() {
+        this.indexOf(EMPTY_ID);
+    }
+
+    int indexOf(String blockId) {
+        Integer index = this.indexes.get(blockId);
+        if (index == null) {
+            index = this.ids.size();
+            this.ids.add(blockId);
+            this.indexes.put(blockId, index);
+        }
+        return index;
+    }
+
+    @Override
+    public Object registry() {
+        return this;
+    }
+
+    @Override
+    public Object asset(int blockTypeIndex) {
+        return blockTypeIndex < this.ids.size() ? this.ids.get(blockTypeIndex) : null;
+    }
+
+    @Override
+    public String idOf(Object asset) {
+        return (String) asset;
+    }
+
+    @Override
+    public String emptyBlockId() {
+        return EMPTY_ID;
+    }
+}
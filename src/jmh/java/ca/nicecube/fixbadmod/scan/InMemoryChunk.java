@@ -0,0 +1,124 @@
+package ca.nicecube.fixbadmod.scan;
+
+import com.hypixel.hytale.math.util.ChunkUtil;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * {@link ChunkAccess} backed by plain arrays. Blocks have no state apart from item containers, and section palettes
+ * are rebuilt lazily after a write, the way a live section palette tracks its entries.
+ */
+final class InMemoryChunk implements ChunkAccess {
+    private static final int SECTION_HEIGHT = ChunkUtil.SIZE;
+    private static final int SECTION_COUNT = ChunkUtil.HEIGHT / SECTION_HEIGHT;
+
+    private final InMemoryBlockTypes blockTypes;
+    private final int[] blocks = new int[ChunkUtil.SIZE * ChunkUtil.SIZE * ChunkUtil.HEIGHT];
+    private final int[][] palettes = new int[SECTION_COUNT][];
+    private final Map<Integer, String[]> containers = new HashMap<>();
+
+    InMemoryChunk(InMemoryBlockTypes blockTypes) {
+        this.blockTypes = blockTypes;
+    }
+
+    /**
+     * Places a container block holding {@code items}; null entries are empty slots.
+     */
+    void putContainer(int x, int y, int z, String blockId, String[] items) {
+        this.setBlock(x, y, z, blockId);
+        this.containers.put(ChunkUtil.indexBlockInColumn(x, y, z), items.clone());
+    }
+
+    @Override
+    public int getBlock(int x, int y, int z) {
+        return this.blocks[index(x, y, z)];
+    }
+
+    @Override
+    public boolean setBlock(int x, int y, int z, String blockId) {
+        int blockTypeIndex = this.blockTypes.indexOf(blockId);
+        int index = index(x, y, z);
+        if (this.blocks[index] == blockTypeIndex) {
+            return false;
+        }
+
+        this.blocks[index] = blockTypeIndex;
+        this.palettes[(y - ChunkUtil.MIN_Y) / SECTION_HEIGHT] = null;
+        return true;
+    }
+
+    @Override
+    public boolean forEachPaletteEntry(int sectionIndex, IntConsumer consumer) {
+        int[] palette = this.palettes[sectionIndex];
+        if (palette == null) {
+            int from = sectionIndex * SECTION_HEIGHT * ChunkUtil.SIZE * ChunkUtil.SIZE;
+            int to = from + SECTION_HEIGHT * ChunkUtil.SIZE * ChunkUtil.SIZE;
+            palette = Arrays.stream(this.blocks, from, to).distinct().toArray();
+            this.palettes[sectionIndex] = palette;
+        }
+
+        for (int blockTypeIndex : palette) {
+            consumer.accept(blockTypeIndex);
+        }
+        return true;
+    }
+
+    @Override
+    public int[] componentBlockIndexes() {
+        int[] blockIndexes = new int[this.containers.size()];
+        int count = 0;
+        for (int blockIndex : this.containers.keySet()) {
+            blockIndexes[count++] = blockIndex;
+        }
+        return blockIndexes;
+    }
+
+    @Override
+    public String stateBlockId(int x, int y, int z) {
+        return "";
+    }
+
+    @Override
+    public ItemSlots itemContainer(int x, int y, int z) {
+        String[] items = this.containers.get(ChunkUtil.indexBlockInColumn(x, y, z));
+        return items == null ? null : new ArraySlots(items);
+    }
+
+    @Override
+    public boolean clearBlockComponent(int x, int y, int z) {
+        return this.containers.remove(ChunkUtil.indexBlockInColumn(x, y, z)) != null;
+    }
+
+    @Override
+    public void markNeedsSaving() {
+    }
+
+    private static int index(int x, int y, int z) {
+        return ((y - ChunkUtil.MIN_Y) * ChunkUtil.SIZE + z) * ChunkUtil.SIZE + x;
+    }
+
+    private static final class ArraySlots implements ItemSlots {
+        private final String[] items;
+
+        private ArraySlots(String[] items) {
+            this.items = items;
+        }
+
+        @Override
+        public int capacity() {
+            return this.items.length;
+        }
+
+        @Override
+        public String itemId(int slot) {
+            return this.items[slot];
+        }
+
+        @Override
+        public void clear(int slot) {
+            this.items[slot] = null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ca.nicecube.fixbadmod.scan;
+
+import ca.nicecube.fixbadmod.config.FixBadModConfig;
+import com.hypixel.hytale.logger.HytaleLogger;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Job start-up cost (compile, signature, matcher build) and per-id rule lookups for the shipped template and a
+ * synthetic 10k rule set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleEngineBenchmark {
+    private static final int ID_COUNT = 4096;
+
+    @Param({BenchmarkRules.NOCUBE_TAVERN, BenchmarkRules.SYNTHETIC_10K})
+    public String ruleSet;
+
+    private RuleCompiler compiler;
+    private FixBadModConfig config;
+    private List<CompiledRule> compiledRules;
+    private CompiledRuleSet rules;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.compiler = new RuleCompiler(HytaleLogger.forEnclosingClass());
+        this.config = BenchmarkRules.config(this.ruleSet);
+        this.compiledRules = this.compiler.compile(this.config);
+        this.rules = new CompiledRuleSet(this.compiledRules);
+        this.ids = BenchmarkRules.chunkIds(this.compiledRules, ID_COUNT, 7L);
+    }
+
+    @Benchmark
+    public List<CompiledRule> compileRules() {
+        return this.compiler.compile(this.config);
+    }
+
+    @Benchmark
+    public String rulesSignature() {
+        return RuleCompiler.signature(this.compiledRules);
+    }
+
+    @Benchmark
+    public CompiledRuleSet buildMatcher() {
+        return new CompiledRuleSet(this.compiledRules);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ID_COUNT)
+    public void resolve(Blackhole blackhole) {
+        for (String id : this.ids) {
+            blackhole.consume(this.rules.resolve(id));
+        }
+    }
+}
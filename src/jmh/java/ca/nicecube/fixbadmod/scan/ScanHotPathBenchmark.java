@@ -0,0 +1,77 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Unknown-key extraction from the server's error chains and the end-of-job match summary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScanHotPathBenchmark {
+    private static final int SUMMARY_LIMIT = 20;
+
+    @Param({"100", "5000"})
+    public int breakdownEntries;
+
+    private Throwable unknownKeyError;
+    private Throwable unrelatedError;
+    private Map<String, Long> breakdown;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Shape of a component decode failure: the key sits two causes deep.
+        this.unknownKeyError = new IllegalStateException(
+            "Failed to load block component",
+            new RuntimeException(
+                "Failed to decode codec field 'BlockType'",
+                new IllegalArgumentException("Unknown key! NoCube_Aging_Cask")
+            )
+        );
+        this.unrelatedError = new IllegalStateException(
+            "Failed to load block component",
+            new IndexOutOfBoundsException("Index 4096 out of bounds for length 4096")
+        );
+
+        MatchBreakdown matches = new MatchBreakdown();
+        SplittableRandom random = new SplittableRandom(11L);
+        MatchCategory[] categories = MatchCategory.values();
+        for (int i = 0; i < this.breakdownEntries; i++) {
+            MatchCategory category = categories[random.nextInt(categories.length)];
+            matches.add(category, "Mod" + random.nextInt(50) + "_Block_" + i, 1L + random.nextInt(100_000));
+        }
+        this.breakdown = matches.toMap();
+    }
+
+    @Benchmark
+    public String extractUnknownKey() {
+        return UnknownKeys.extract(this.unknownKeyError);
+    }
+
+    @Benchmark
+    public String extractUnknownKeyMiss() {
+        return UnknownKeys.extract(this.unrelatedError);
+    }
+
+    @Benchmark
+    public String matchSummary() {
+        return MatchBreakdown.summarize(this.breakdown, SUMMARY_LIMIT);
+    }
+}
@@ -29,7 +29,9 @@ public class FixBadModPlugin extends JavaPlugin {
 
         this.configService = new FixBadModConfigService(this.getLogger(), configuredDataDirectory);
         this.config = this.configService.loadOrCreate();
-        this.sanitizerService = new WorldSanitizerService(this.getLogger());
+        this.sanitizerService = new WorldSanitizerService(this.getLogger(), configuredDataDirectory);
+        this.sanitizerService.configureMetricsExport(this.config);
+        this.sanitizerService.configureChunkLoadCap(this.config);
 
         this.getCommandRegistry().registerCommand(new FixBadModCommand(this, this.sanitizerService));
 
@@ -45,7 +47,7 @@ public class FixBadModPlugin extends JavaPlugin {
             this.configService.getLastTemplateFileCount()
         );
         this.getLogger().atInfo().log(
-            "[%s] Command: /fixbadmod scan --world=<world> | /fixbadmod execute --world=<world> | /fixbadmod status --world=<world> | /fixbadmod cancel --world=<world> | /fixbadmod reload",
+            "[%s] Command: /fixbadmod scan --world=<world> | /fixbadmod execute --world=<world> | /fixbadmod status --world=<world> | /fixbadmod cancel --world=<world> | /fixbadmod resume --world=<world> | /fixbadmod reload",
             this.getName()
         );
     }
@@ -54,6 +56,7 @@ public class FixBadModPlugin extends JavaPlugin {
     protected void shutdown() {
         if (this.sanitizerService != null) {
             this.sanitizerService.cancelAll("Plugin is shutting down");
+            this.sanitizerService.stopMetricsExport();
         }
 
         this.getLogger().atInfo().log("[%s] Disabled.", this.getName());
@@ -65,6 +68,10 @@ public class FixBadModPlugin extends JavaPlugin {
 
     public FixBadModConfig reloadConfig() {
         this.config = this.configService.loadOrCreate();
+        if (this.sanitizerService != null) {
+            this.sanitizerService.configureMetricsExport(this.config);
+            this.sanitizerService.configureChunkLoadCap(this.config);
+        }
         return this.config;
     }
 
@@ -5,14 +5,18 @@ import ca.nicecube.fixbadmod.scan.WorldSanitizerService;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.FlagArg;
 import com.hypixel.hytale.server.core.command.system.basecommands.AbstractCommandCollection;
 import com.hypixel.hytale.server.core.command.system.basecommands.AbstractWorldCommand;
 import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+import com.hypixel.hytale.server.core.universe.Universe;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class FixBadModCommand extends AbstractCommandCollection {
     private static final String PREFIX = "[FixBadMod]";
@@ -37,6 +41,7 @@ public class FixBadModCommand extends AbstractCommandCollection {
         this.addSubCommand(new RunAliasSubCommand());
         this.addSubCommand(new StatusSubCommand());
         this.addSubCommand(new CancelSubCommand());
+        this.addSubCommand(new ResumeSubCommand());
         this.addSubCommand(new ReloadSubCommand());
     }
 
@@ -95,13 +100,78 @@ public class FixBadModCommand extends AbstractCommandCollection {
         return code + text + ANSI_RESET;
     }
 
+    private static Collection<World> allWorlds() {
+        return Universe.get().getWorlds().values();
+    }
+
+    private static void sendStartResults(
+        CommandContext context,
+        String startedTitle,
+        Map<String, WorldSanitizerService.StartResult> results
+    ) {
+        List<String> lines = new ArrayList<>();
+        int started = 0;
+        for (Map.Entry<String, WorldSanitizerService.StartResult> entry : results.entrySet()) {
+            WorldSanitizerService.StartResult result = entry.getValue();
+            if (result.isStarted()) {
+                started += 1;
+            }
+            lines.add((result.isStarted() ? "[started] " : "[skipped] ") + entry.getKey() + ": " + result.getMessage());
+        }
+        lines.add("Use /fixbadmod status --all to monitor progress");
+
+        sendSection(
+            context,
+            startedTitle + " (" + started + "/" + results.size() + " worlds)",
+            started > 0 ? Tone.SUCCESS : Tone.WARN,
+            lines
+        );
+    }
+
+    private static String stateOf(WorldSanitizerService.JobStatus status) {
+        if (status.isRunning()) {
+            return "running";
+        }
+        if (status.isCancelled()) {
+            return "cancelled";
+        }
+        return "completed";
+    }
+
+    private static String formatEta(WorldSanitizerService.JobStatus status) {
+        long seconds = status.getEtaSeconds();
+        if (seconds < 0L) {
+            return "measuring...";
+        }
+
+        String duration = seconds >= 3600L
+            ? String.format("%dh %02dm", seconds / 3600L, (seconds % 3600L) / 60L)
+            : String.format("%dm %02ds", seconds / 60L, seconds % 60L);
+        return status.isTotalEstimated() ? "~" + duration + " (discovering chunks)" : duration;
+    }
+
     private final class ScanSubCommand extends AbstractWorldCommand {
+        private final FlagArg allWorldsFlag;
+
         private ScanSubCommand() {
             super("scan", "Run dry-scan on saved chunks without changing blocks");
+            this.allWorldsFlag = this.withFlagArg("all", "Scan every world concurrently");
         }
 
         @Override
         protected void execute(CommandContext context, World world, Store<EntityStore> entityStore) {
+            if (this.allWorldsFlag.get(context)) {
+                sendStartResults(
+                    context,
+                    "SCAN STARTED",
+                    FixBadModCommand.this.sanitizerService.startScanAll(
+                        allWorlds(),
+                        FixBadModCommand.this.plugin.getConfigSnapshot()
+                    )
+                );
+                return;
+            }
+
             WorldSanitizerService.StartResult result = FixBadModCommand.this.sanitizerService.startScan(
                 world,
                 FixBadModCommand.this.plugin.getConfigSnapshot()
@@ -135,12 +205,27 @@ public class FixBadModCommand extends AbstractCommandCollection {
     }
 
     private final class ExecuteSubCommand extends AbstractWorldCommand {
+        private final FlagArg allWorldsFlag;
+
         private ExecuteSubCommand() {
             super("execute", "Apply replacements after a completed dry-scan");
+            this.allWorldsFlag = this.withFlagArg("all", "Execute the pending dry-scan of every world concurrently");
         }
 
         @Override
         protected void execute(CommandContext context, World world, Store<EntityStore> entityStore) {
+            if (this.allWorldsFlag.get(context)) {
+                sendStartResults(
+                    context,
+                    "APPLY STARTED",
+                    FixBadModCommand.this.sanitizerService.executePendingAll(
+                        allWorlds(),
+                        FixBadModCommand.this.plugin.getConfigSnapshot()
+                    )
+                );
+                return;
+            }
+
             WorldSanitizerService.StartResult result = FixBadModCommand.this.sanitizerService.executePending(
                 world,
                 FixBadModCommand.this.plugin.getConfigSnapshot()
@@ -194,12 +279,22 @@ public class FixBadModCommand extends AbstractCommandCollection {
     }
 
     private final class StatusSubCommand extends AbstractWorldCommand {
+        private final FlagArg allWorldsFlag;
+        private final FlagArg verboseFlag;
+
         private StatusSubCommand() {
             super("status", "Show active/last job status and pending confirmation state");
+            this.allWorldsFlag = this.withFlagArg("all", "Show combined status of all worlds");
+            this.verboseFlag = this.withFlagArg("verbose", "Also show per-phase latency percentiles");
         }
 
         @Override
         protected void execute(CommandContext context, World world, Store<EntityStore> entityStore) {
+            if (this.allWorldsFlag.get(context)) {
+                this.sendAllWorlds(context);
+                return;
+            }
+
             String worldName = world.getName();
             WorldSanitizerService.JobStatus status = FixBadModCommand.this.sanitizerService.getStatus(worldName);
             WorldSanitizerService.PendingScan pending = FixBadModCommand.this.sanitizerService.getPendingScan(worldName);
@@ -219,14 +314,7 @@ public class FixBadModCommand extends AbstractCommandCollection {
             }
 
             if (status != null) {
-                String state;
-                if (status.isRunning()) {
-                    state = "running";
-                } else if (status.isCancelled()) {
-                    state = "cancelled";
-                } else {
-                    state = "completed";
-                }
+                String state = stateOf(status);
 
                 String metricLabel = status.getMode() == WorldSanitizerService.JobMode.SCAN ? "matches" : "replaced";
                 Tone statusTone = switch (state) {
@@ -239,17 +327,61 @@ public class FixBadModCommand extends AbstractCommandCollection {
                 lines.add("World: " + status.getWorldName());
                 lines.add("Mode: " + status.getMode());
                 lines.add("State: " + state);
-                lines.add(
-                    String.format(
-                        "Progress: %d/%d (%.2f%%)",
-                        status.getProcessedChunks(),
-                        status.getTotalChunks(),
-                        status.getProgressPercent()
-                    )
-                );
+                if (status.isTotalEstimated()) {
+                    lines.add(
+                        String.format(
+                            "Progress: %d/~%d (discovering chunks)",
+                            status.getProcessedChunks(),
+                            status.getTotalChunks()
+                        )
+                    );
+                } else {
+                    lines.add(
+                        String.format(
+                            "Progress: %d/%d (%.2f%%)",
+                            status.getProcessedChunks(),
+                            status.getTotalChunks(),
+                            status.getProgressPercent()
+                        )
+                    );
+                }
                 lines.add("Touched chunks: " + status.getTouchedChunks());
                 lines.add("Failed chunks: " + status.getFailedChunks());
                 lines.add(metricLabel + ": " + status.getTotalMatches());
+                if (status.isRunning()) {
+                    lines.add(
+                        "Job-loaded chunks resident: " + status.getResidentJobChunks() +
+                            " | left to the server: " + status.getRetainedJobChunks()
+                    );
+                    lines.add(
+                        String.format(
+                            "Rate (1m): %.1f chunks/s | %.0f voxels/s | %.1f %s/s",
+                            status.getChunkRate(),
+                            status.getVoxelRate(),
+                            status.getMatchRate(),
+                            metricLabel
+                        )
+                    );
+                    lines.add("ETA: " + formatEta(status));
+                    if (status.getWorldThreadLagMillis() >= 0.0d) {
+                        lines.add(
+                            String.format(
+                                "Throttle: %s, world-thread lag %.0f ms",
+                                status.getConcurrencyLimit() == 0
+                                    ? "dispatch paused"
+                                    : status.getConcurrencyLimit() + "/" + status.getMaxInFlightChunks() +
+                                        " chunks in flight",
+                                status.getWorldThreadLagMillis()
+                            )
+                        );
+                    }
+                }
+                if (status.getUnknownKeySlowPaths() > 0L) {
+                    lines.add(
+                        "Unknown-key exceptions: " + status.getUnknownKeySlowPaths() +
+                            " (" + status.getUnknownKeyCacheHits() + " served from cache)"
+                    );
+                }
                 lines.add(String.format("Elapsed: %.2fs", status.getElapsedSeconds()));
 
                 if (status.isCancelled() && !status.getCancelReason().isBlank()) {
@@ -257,6 +389,14 @@ public class FixBadModCommand extends AbstractCommandCollection {
                 }
 
                 sendSection(context, "JOB STATUS", statusTone, lines);
+
+                if (this.verboseFlag.get(context)) {
+                    List<String> timingLines = new ArrayList<>();
+                    for (WorldSanitizerService.PhaseTiming timing : status.getPhaseTimings()) {
+                        timingLines.add(timing.format());
+                    }
+                    sendSection(context, "PHASE TIMINGS", Tone.MUTED, timingLines);
+                }
             }
 
             if (pending != null) {
@@ -270,6 +410,10 @@ public class FixBadModCommand extends AbstractCommandCollection {
                         "Touched chunks: " + pending.getTouchedChunks(),
                         "Failed chunks: " + pending.getFailedChunks(),
                         "Matches: " + pending.getTotalMatches(),
+                        "Execute will revisit: " + pending.getTouchedChunkIndexes().size() + " touched chunks" +
+                            (FixBadModCommand.this.plugin.getConfigSnapshot().getScan().isExecuteIncludeFailedChunks()
+                                ? " + " + pending.getFailedChunkIndexes().size() + " failed chunks"
+                                : ""),
                         String.format("Age: %.2fs", pending.getAgeSeconds()),
                         "Run now: /fixbadmod execute --world=" + worldName
                     )
@@ -283,6 +427,74 @@ public class FixBadModCommand extends AbstractCommandCollection {
                 );
             }
         }
+
+        private void sendAllWorlds(CommandContext context) {
+            WorldSanitizerService.AggregateStatus aggregate =
+                FixBadModCommand.this.sanitizerService.getAggregateStatus();
+            if (aggregate.getJobs().isEmpty()) {
+                sendSection(
+                    context,
+                    "NO DATA",
+                    Tone.WARN,
+                    List.of(
+                        "No job has run since the server started.",
+                        "Run: /fixbadmod scan --all"
+                    )
+                );
+                return;
+            }
+
+            List<String> lines = new ArrayList<>();
+            lines.add("Running jobs: " + aggregate.getRunningJobs() + "/" + aggregate.getJobs().size());
+            if (aggregate.isTotalEstimated()) {
+                lines.add(
+                    String.format(
+                        "Progress: %d/~%d (discovering chunks)",
+                        aggregate.getProcessedChunks(),
+                        aggregate.getTotalChunks()
+                    )
+                );
+            } else {
+                lines.add(
+                    String.format(
+                        "Progress: %d/%d (%.2f%%)",
+                        aggregate.getProcessedChunks(),
+                        aggregate.getTotalChunks(),
+                        aggregate.getProgressPercent()
+                    )
+                );
+            }
+            lines.add("Touched chunks: " + aggregate.getTouchedChunks());
+            lines.add("Failed chunks: " + aggregate.getFailedChunks());
+            lines.add("Matches: " + aggregate.getTotalMatches());
+            lines.add(
+                "Chunk loads in flight: " + aggregate.getChunkLoadsInFlight() +
+                    (aggregate.getGlobalMaxInFlightChunks() > 0
+                        ? "/" + aggregate.getGlobalMaxInFlightChunks()
+                        : " (no global cap)")
+            );
+            for (WorldSanitizerService.JobStatus status : aggregate.getJobs()) {
+                lines.add(
+                    String.format(
+                        "%s: %s %s %d/%d%s, %d matches",
+                        status.getWorldName(),
+                        status.getMode(),
+                        stateOf(status),
+                        status.getProcessedChunks(),
+                        status.getTotalChunks(),
+                        status.isTotalEstimated() ? "+" : "",
+                        status.getTotalMatches()
+                    )
+                );
+            }
+
+            sendSection(
+                context,
+                "ALL WORLDS",
+                aggregate.getRunningJobs() > 0 ? Tone.INFO : Tone.SUCCESS,
+                lines
+            );
+        }
     }
 
     private final class CancelSubCommand extends AbstractWorldCommand {
@@ -312,6 +524,44 @@ public class FixBadModCommand extends AbstractCommandCollection {
         }
     }
 
+    private final class ResumeSubCommand extends AbstractWorldCommand {
+        private ResumeSubCommand() {
+            super("resume", "Resume a cancelled or interrupted scan/execute job from its last checkpoint");
+        }
+
+        @Override
+        protected void execute(CommandContext context, World world, Store<EntityStore> entityStore) {
+            WorldSanitizerService.StartResult result = FixBadModCommand.this.sanitizerService.resume(
+                world,
+                FixBadModCommand.this.plugin.getConfigSnapshot()
+            );
+            String worldName = world.getName();
+            if (result.isStarted()) {
+                sendSection(
+                    context,
+                    "RESUMED",
+                    Tone.SUCCESS,
+                    List.of(
+                        "World: " + worldName,
+                        result.getMessage(),
+                        "Use /fixbadmod status --world=" + worldName + " to monitor progress"
+                    )
+                );
+                return;
+            }
+
+            sendSection(
+                context,
+                "RESUME NOT STARTED",
+                Tone.WARN,
+                List.of(
+                    "World: " + worldName,
+                    result.getMessage()
+                )
+            );
+        }
+    }
+
     private final class ReloadSubCommand extends CommandBase {
         private ReloadSubCommand() {
             super("reload", "Reload FixBadMod config from disk");
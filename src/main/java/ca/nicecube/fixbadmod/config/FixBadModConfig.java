@@ -68,6 +68,19 @@ public class FixBadModConfig {
         private int maxReplacementsPerChunk = -1;
         private int matchBreakdownLimit = 20;
         private boolean autoDeleteUnknownKeys = true;
+        private int maxInFlightChunks = 4;
+        private int globalMaxInFlightChunks = 16;
+        private boolean executeIncludeFailedChunks = false;
+        private int checkpointIntervalSeconds = 30;
+        private int worldThreadBudgetMillis = 5;
+        private int worldThreadLagBudgetMillis = 100;
+        private boolean releaseLoadedChunks = true;
+        private int releasePlayerRadiusChunks = 12;
+        private String chunkOrder = "region-hilbert";
+        private int metricsExportIntervalSeconds = 0;
+        private String metricsExportFormat = "prometheus";
+        private boolean chunkReport = false;
+        private int chunkReportMaxFileMegabytes = 64;
 
         public int getMaxReplacementsPerChunk() {
             return this.maxReplacementsPerChunk;
@@ -81,6 +94,58 @@ public class FixBadModConfig {
             return this.autoDeleteUnknownKeys;
         }
 
+        public int getMaxInFlightChunks() {
+            return this.maxInFlightChunks;
+        }
+
+        public int getGlobalMaxInFlightChunks() {
+            return this.globalMaxInFlightChunks;
+        }
+
+        public boolean isExecuteIncludeFailedChunks() {
+            return this.executeIncludeFailedChunks;
+        }
+
+        public int getCheckpointIntervalSeconds() {
+            return this.checkpointIntervalSeconds;
+        }
+
+        public int getWorldThreadBudgetMillis() {
+            return this.worldThreadBudgetMillis;
+        }
+
+        public int getWorldThreadLagBudgetMillis() {
+            return this.worldThreadLagBudgetMillis;
+        }
+
+        public boolean isReleaseLoadedChunks() {
+            return this.releaseLoadedChunks;
+        }
+
+        public int getReleasePlayerRadiusChunks() {
+            return this.releasePlayerRadiusChunks;
+        }
+
+        public String getChunkOrder() {
+            return this.chunkOrder;
+        }
+
+        public int getMetricsExportIntervalSeconds() {
+            return this.metricsExportIntervalSeconds;
+        }
+
+        public String getMetricsExportFormat() {
+            return this.metricsExportFormat;
+        }
+
+        public boolean isChunkReport() {
+            return this.chunkReport;
+        }
+
+        public int getChunkReportMaxFileMegabytes() {
+            return this.chunkReportMaxFileMegabytes;
+        }
+
         public void normalize() {
             if (this.maxReplacementsPerChunk == 0 || this.maxReplacementsPerChunk < -1) {
                 this.maxReplacementsPerChunk = -1;
@@ -89,6 +154,48 @@ public class FixBadModConfig {
             if (this.matchBreakdownLimit <= 0) {
                 this.matchBreakdownLimit = 20;
             }
+
+            if (this.maxInFlightChunks <= 0) {
+                this.maxInFlightChunks = 4;
+            }
+
+            if (this.globalMaxInFlightChunks < 0) {
+                this.globalMaxInFlightChunks = 16;
+            }
+
+            if (this.checkpointIntervalSeconds < 0) {
+                this.checkpointIntervalSeconds = 0;
+            }
+
+            if (this.worldThreadBudgetMillis < 0) {
+                this.worldThreadBudgetMillis = 5;
+            }
+
+            if (this.worldThreadLagBudgetMillis < 0) {
+                this.worldThreadLagBudgetMillis = 100;
+            }
+
+            if (this.releasePlayerRadiusChunks < 0) {
+                this.releasePlayerRadiusChunks = 12;
+            }
+
+            if (this.chunkOrder == null || this.chunkOrder.isBlank()) {
+                this.chunkOrder = "region-hilbert";
+            }
+            this.chunkOrder = this.chunkOrder.trim().toLowerCase();
+
+            if (this.metricsExportIntervalSeconds < 0) {
+                this.metricsExportIntervalSeconds = 0;
+            }
+
+            if (this.metricsExportFormat == null || this.metricsExportFormat.isBlank()) {
+                this.metricsExportFormat = "prometheus";
+            }
+            this.metricsExportFormat = this.metricsExportFormat.trim().toLowerCase();
+
+            if (this.chunkReportMaxFileMegabytes <= 0) {
+                this.chunkReportMaxFileMegabytes = 64;
+            }
         }
     }
 
@@ -0,0 +1,109 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.util.concurrent.Executor;
+
+/**
+ * AIMD limit on a job's chunks in flight, driven by how long a probe task waits for the world thread.
+ *
+ * <p>The wait grows with every millisecond a tick runs over, so it stands in for tick health. A probe that waits
+ * longer than the lag budget halves the limit, and halving a limit of one pauses dispatch. A probe within budget
+ * raises the limit by one, up to {@code maxInFlightChunks}. A probe still queued when the next one is due counts as
+ * late with the time it has waited so far. A budget of {@code 0} disables the throttle.
+ */
+final class AdaptiveThrottle {
+    private final int maxLimit;
+    private final long lagBudgetNanos;
+    private volatile int limit;
+    private volatile long lastLagNanos = -1L;
+    private boolean probeQueued;
+    private long probeSentAtNanos;
+
+    AdaptiveThrottle(int maxLimit, int lagBudgetMillis) {
+        this.maxLimit = maxLimit;
+        this.lagBudgetNanos = Math.max(0, lagBudgetMillis) * 1_000_000L;
+        this.limit = maxLimit;
+    }
+
+    boolean isEnabled() {
+        return this.lagBudgetNanos > 0L;
+    }
+
+    /**
+     * Chunks the job may have in flight right now; {@code 0} while dispatch is paused.
+     */
+    int limit() {
+        return this.isEnabled() ? this.limit : this.maxLimit;
+    }
+
+    int maxLimit() {
+        return this.maxLimit;
+    }
+
+    long lagBudgetNanos() {
+        return this.lagBudgetNanos;
+    }
+
+    /**
+     * Wait of the last probe, or -1 before the first one returned.
+     */
+    long lastLagNanos() {
+        return this.lastLagNanos;
+    }
+
+    /**
+     * Queues a probe on {@code worldThread} unless the previous one is still waiting. {@code listener} hears about
+     * every limit change, on the world thread or on the caller's.
+     */
+    void probe(Executor worldThread, Listener listener) {
+        long nowNanos = System.nanoTime();
+        long lateByNanos = -1L;
+        synchronized (this) {
+            if (this.probeQueued) {
+                lateByNanos = nowNanos - this.probeSentAtNanos;
+            } else {
+                this.probeQueued = true;
+                this.probeSentAtNanos = nowNanos;
+            }
+        }
+
+        if (lateByNanos >= 0L) {
+            this.record(lateByNanos, listener);
+            return;
+        }
+
+        try {
+            worldThread.execute(() -> {
+                long lagNanos = System.nanoTime() - nowNanos;
+                synchronized (this) {
+                    this.probeQueued = false;
+                }
+                this.record(lagNanos, listener);
+            });
+        } catch (RuntimeException rejected) {
+            synchronized (this) {
+                this.probeQueued = false;
+            }
+            throw rejected;
+        }
+    }
+
+    private void record(long lagNanos, Listener listener) {
+        int previous;
+        int current;
+        synchronized (this) {
+            this.lastLagNanos = lagNanos;
+            previous = this.limit;
+            current = lagNanos > this.lagBudgetNanos ? previous / 2 : Math.min(this.maxLimit, previous + 1);
+            this.limit = current;
+        }
+
+        if (current != previous) {
+            listener.limitChanged(previous, current);
+        }
+    }
+
+    @FunctionalInterface
+    interface Listener {
+        void limitChanged(int previous, int current);
+    }
+}
@@ -0,0 +1,111 @@
+package ca.nicecube.fixbadmod.scan;
+
+import it.unimi.dsi.fastutil.longs.LongList;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Varint and chunk-index list encoding shared by the on-disk job state files.
+ */
+final class BinaryCodec {
+    private BinaryCodec() {
+    }
+
+    static String sanitizeFileName(String worldName) {
+        return worldName.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * File name stem of a world's job state file. Sanitizing can map different world names to the same stem, so the
+     * hash of the raw name is appended.
+     */
+    static String stateFileName(String worldName) {
+        return sanitizeFileName(worldName) + '-' + String.format("%08x", worldName.hashCode());
+    }
+
+    /**
+     * Writes already sorted {@code chunkIndexes} as zigzag varint deltas.
+     */
+    static void writeSortedChunkIndexes(DataOutputStream out, LongList chunkIndexes) throws IOException {
+        int size = chunkIndexes.size();
+        writeVarLong(out, size);
+        long previous = 0L;
+        for (int i = 0; i < size; i++) {
+            long chunkIndex = chunkIndexes.getLong(i);
+            writeVarLong(out, zigzag(chunkIndex - previous));
+            previous = chunkIndex;
+        }
+    }
+
+    /**
+     * Writes {@code chunkIndexes[from, to)} in the given order as zigzag varint deltas.
+     */
+    static void writeChunkIndexes(DataOutputStream out, long[] chunkIndexes, int from, int to) throws IOException {
+        writeVarLong(out, to - from);
+        long previous = 0L;
+        for (int i = from; i < to; i++) {
+            writeVarLong(out, zigzag(chunkIndexes[i] - previous));
+            previous = chunkIndexes[i];
+        }
+    }
+
+    /**
+     * Reads a list written by {@link #writeSortedChunkIndexes} or {@link #writeChunkIndexes}. Every entry takes at
+     * least one byte, so a count above {@code maxBytes} (the length of the file being read) is rejected before the
+     * array is allocated.
+     */
+    static long[] readChunkIndexes(DataInputStream in, long maxBytes) throws IOException {
+        int count = readCount(in, maxBytes);
+        long[] chunkIndexes = new long[count];
+        long previous = 0L;
+        for (int i = 0; i < count; i++) {
+            previous += unzigzag(readVarLong(in));
+            chunkIndexes[i] = previous;
+        }
+
+        return chunkIndexes;
+    }
+
+    /**
+     * Reads an element count and rejects it when it is negative or larger than {@code maxCount}.
+     */
+    static int readCount(DataInputStream in, long maxCount) throws IOException {
+        long count = readVarLong(in);
+        if (count < 0L || count > Math.min(maxCount, Integer.MAX_VALUE - 8)) {
+            throw new IOException("Invalid element count " + count);
+        }
+
+        return (int) count;
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1L);
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0L) {
+            out.writeByte((int) ((remaining & 0x7FL) | 0x80L));
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed varint");
+    }
+}
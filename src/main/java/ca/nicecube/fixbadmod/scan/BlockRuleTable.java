@@ -0,0 +1,123 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.util.Arrays;
+
+/**
+ * Dense block-type index to rule outcome table, shared by every chunk of a job.
+ * Only touched from the job's world thread.
+ */
+final class BlockRuleTable {
+    static final byte UNRESOLVED = 0;
+    static final byte NO_MATCH = 1;
+    static final byte REPLACE = 2;
+    static final byte DELETE = 3;
+    static final byte UNKNOWN = 4;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final CompiledRuleSet rules;
+    private final BlockTypeLookup blockTypes;
+    private Object registry;
+    private byte[] outcomes = new byte[INITIAL_CAPACITY];
+    private Object[] assets = new Object[INITIAL_CAPACITY];
+    private String[] blockIds = new String[INITIAL_CAPACITY];
+    private CompiledRule[] matchedRules = new CompiledRule[INITIAL_CAPACITY];
+
+    BlockRuleTable(CompiledRuleSet rules, BlockTypeLookup blockTypes) {
+        this.rules = rules;
+        this.blockTypes = blockTypes;
+        this.registry = blockTypes.registry();
+    }
+
+    /**
+     * Drops every resolved entry when the block registry was swapped. Returns true if the table was reset.
+     */
+    boolean revalidate() {
+        Object currentRegistry = this.blockTypes.registry();
+        if (currentRegistry != this.registry) {
+            this.reset(currentRegistry);
+            return true;
+        }
+
+        return false;
+    }
+
+    byte outcome(int blockTypeIndex) {
+        if (blockTypeIndex < this.outcomes.length) {
+            byte outcome = this.outcomes[blockTypeIndex];
+            if (outcome != UNRESOLVED) {
+                return outcome;
+            }
+        }
+
+        return this.resolve(blockTypeIndex);
+    }
+
+    /**
+     * Like {@link #outcome(int)}, but also catches in-place asset reloads by comparing the cached
+     * asset with the live one. Cheap enough for palette entries, too slow for every voxel.
+     */
+    byte checkedOutcome(int blockTypeIndex) {
+        if (blockTypeIndex < this.outcomes.length && this.outcomes[blockTypeIndex] != UNRESOLVED &&
+            this.assets[blockTypeIndex] != this.blockTypes.asset(blockTypeIndex)) {
+            this.reset(this.blockTypes.registry());
+        }
+
+        return this.outcome(blockTypeIndex);
+    }
+
+    /**
+     * Id of a resolved block type, or null when its asset is missing or unknown.
+     */
+    String blockId(int blockTypeIndex) {
+        return this.blockIds[blockTypeIndex];
+    }
+
+    CompiledRule rule(int blockTypeIndex) {
+        return this.matchedRules[blockTypeIndex];
+    }
+
+    private byte resolve(int blockTypeIndex) {
+        if (blockTypeIndex >= this.outcomes.length) {
+            int capacity = Math.max(this.outcomes.length * 2, blockTypeIndex + 1);
+            this.outcomes = Arrays.copyOf(this.outcomes, capacity);
+            this.assets = Arrays.copyOf(this.assets, capacity);
+            this.blockIds = Arrays.copyOf(this.blockIds, capacity);
+            this.matchedRules = Arrays.copyOf(this.matchedRules, capacity);
+        }
+
+        Object asset = this.blockTypes.asset(blockTypeIndex);
+        String blockId = asset == null ? null : this.blockTypes.idOf(asset);
+        byte outcome;
+        CompiledRule matchedRule = null;
+        if (blockId == null || blockId.isBlank()) {
+            // Resolved per block from its state in the voxel loop.
+            outcome = UNKNOWN;
+        } else {
+            matchedRule = this.rules.resolve(blockId);
+            if (matchedRule == null) {
+                outcome = NO_MATCH;
+            } else if (matchedRule.isDelete()) {
+                outcome = DELETE;
+            } else if (matchedRule.getReplacementId().equals(blockId)) {
+                outcome = NO_MATCH;
+                matchedRule = null;
+            } else {
+                outcome = REPLACE;
+            }
+        }
+
+        this.outcomes[blockTypeIndex] = outcome;
+        this.assets[blockTypeIndex] = asset;
+        this.blockIds[blockTypeIndex] = blockId;
+        this.matchedRules[blockTypeIndex] = matchedRule;
+        return outcome;
+    }
+
+    private void reset(Object currentRegistry) {
+        this.registry = currentRegistry;
+        Arrays.fill(this.outcomes, UNRESOLVED);
+        Arrays.fill(this.assets, null);
+        Arrays.fill(this.blockIds, null);
+        Arrays.fill(this.matchedRules, null);
+    }
+}
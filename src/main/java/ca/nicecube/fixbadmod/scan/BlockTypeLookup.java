@@ -0,0 +1,27 @@
+package ca.nicecube.fixbadmod.scan;
+
+/**
+ * Block-type registry that {@link BlockRuleTable} resolves palette indexes against. {@link ServerBlockTypes} reads
+ * the server's asset map.
+ */
+interface BlockTypeLookup {
+    /**
+     * Current registry instance; a different value means the registry was swapped and cached entries are stale.
+     */
+    Object registry();
+
+    /**
+     * Asset behind {@code blockTypeIndex}, or null.
+     */
+    Object asset(int blockTypeIndex);
+
+    /**
+     * Id of an asset returned by {@link #asset(int)}, or null when the asset is missing or an unknown placeholder.
+     */
+    String idOf(Object asset);
+
+    /**
+     * Id written when a block is deleted.
+     */
+    String emptyBlockId();
+}
@@ -0,0 +1,56 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.util.function.IntConsumer;
+
+/**
+ * What the block and container passes of a chunk scan need from a chunk. {@link WorldChunkAccess} adapts a live
+ * {@code WorldChunk}; the benchmarks use an in-memory chunk, so voxel throughput can be measured without a server.
+ *
+ * <p>Methods that read a block state throw when the state references an asset that no longer exists. The scanner
+ * extracts the unknown key from the error, the same way it does for live chunks.
+ */
+interface ChunkAccess {
+    int getBlock(int x, int y, int z);
+
+    boolean setBlock(int x, int y, int z, String blockId);
+
+    /**
+     * Feeds the palette of section {@code sectionIndex} to {@code consumer}. Returns false when the palette cannot be
+     * read, in which case the section is scanned voxel by voxel.
+     */
+    boolean forEachPaletteEntry(int sectionIndex, IntConsumer consumer);
+
+    /**
+     * {@code ChunkUtil.indexBlockInColumn} indexes of the blocks that carry a block component, in any order and
+     * possibly repeated.
+     */
+    int[] componentBlockIndexes();
+
+    /**
+     * Block id recorded in the block's state, or an empty string when there is none.
+     */
+    String stateBlockId(int x, int y, int z);
+
+    /**
+     * Item container held by the block's state, or null.
+     */
+    ItemSlots itemContainer(int x, int y, int z);
+
+    /**
+     * Removes the block component at the position and returns true if one was removed.
+     */
+    boolean clearBlockComponent(int x, int y, int z);
+
+    void markNeedsSaving();
+
+    interface ItemSlots {
+        int capacity();
+
+        /**
+         * Item id in {@code slot}, or null when the slot is empty or cannot be read.
+         */
+        String itemId(int slot);
+
+        void clear(int slot);
+    }
+}
@@ -0,0 +1,122 @@
+package ca.nicecube.fixbadmod.scan;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import java.util.ArrayDeque;
+
+/**
+ * Server-wide cap on chunk loads in flight, shared by the jobs of all worlds.
+ *
+ * <p>Jobs that want more permits than are free wait in a round-robin queue. While anyone is waiting, only the job at
+ * the head is served, and it gets a single permit before going to the back, so a world with a long queue cannot
+ * starve the others. A limit of {@code 0} or less disables the cap; permits are still counted.
+ *
+ * <p>Permits are counted per owner. {@link #forget(Object)} returns whatever the owner still holds and later releases
+ * by that owner are ignored, so an owner that stops with loads outstanding cannot leak permits.
+ */
+final class ChunkLoadPermits<T> {
+    private final ArrayDeque<T> waiting = new ArrayDeque<>();
+    private final Reference2IntOpenHashMap<T> held = new Reference2IntOpenHashMap<>();
+    private int limit;
+    private int inFlight;
+
+    synchronized void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    synchronized int getLimit() {
+        return this.limit;
+    }
+
+    synchronized int getInFlight() {
+        return this.inFlight;
+    }
+
+    /**
+     * Grants up to {@code wanted} permits to {@code owner} and returns how many were granted. An owner that gets
+     * fewer than it asked for is queued and should try again once {@link #nextWaiting()} names it.
+     */
+    synchronized int acquire(T owner, int wanted) {
+        if (wanted <= 0) {
+            this.waiting.remove(owner);
+            return 0;
+        }
+
+        if (this.limit <= 0) {
+            this.waiting.remove(owner);
+            this.grant(owner, wanted);
+            return wanted;
+        }
+
+        boolean queued = this.waiting.contains(owner);
+        if (!this.waiting.isEmpty() && this.waiting.peekFirst() != owner) {
+            if (!queued) {
+                this.waiting.addLast(owner);
+            }
+            return 0;
+        }
+
+        int available = this.limit - this.inFlight;
+        if (available <= 0) {
+            if (!queued) {
+                this.waiting.addLast(owner);
+            }
+            return 0;
+        }
+
+        if (queued) {
+            this.waiting.pollFirst();
+        }
+
+        int granted = Math.min(wanted, available);
+        if (!this.waiting.isEmpty()) {
+            granted = 1;
+        }
+        this.grant(owner, granted);
+        if (granted < wanted) {
+            this.waiting.addLast(owner);
+        }
+        return granted;
+    }
+
+    /**
+     * Returns up to {@code permits} of the permits {@code owner} holds.
+     */
+    synchronized void release(T owner, int permits) {
+        int holding = this.held.getInt(owner);
+        int returned = Math.min(permits, holding);
+        if (returned <= 0) {
+            return;
+        }
+
+        if (returned == holding) {
+            this.held.removeInt(owner);
+        } else {
+            this.held.put(owner, holding - returned);
+        }
+        this.inFlight -= returned;
+    }
+
+    /**
+     * Returns the owner whose turn it is while permits are free, or null.
+     */
+    synchronized T nextWaiting() {
+        if (this.limit > 0 && this.inFlight >= this.limit) {
+            return null;
+        }
+
+        return this.waiting.peekFirst();
+    }
+
+    /**
+     * Drops {@code owner} from the wait queue and returns the permits it still holds.
+     */
+    synchronized void forget(T owner) {
+        this.waiting.remove(owner);
+        this.inFlight -= this.held.removeInt(owner);
+    }
+
+    private void grant(T owner, int permits) {
+        this.held.addTo(owner, permits);
+        this.inFlight += permits;
+    }
+}
@@ -0,0 +1,140 @@
+package ca.nicecube.fixbadmod.scan;
+
+import com.hypixel.hytale.math.util.ChunkUtil;
+import java.util.Arrays;
+
+/**
+ * Order in which a job visits its chunks ({@code scan.chunkOrder}).
+ *
+ * <p>{@link #INDEX} sorts by the raw chunk index, which walks a full column of chunks and keeps jumping between region
+ * files. The region orders visit region files one at a time (row-major) and walk the 32x32 chunks inside each region
+ * along a Morton or Hilbert curve, so consecutive loads hit the same file and nearby slots.
+ */
+enum ChunkOrder {
+    INDEX("index"),
+    REGION_MORTON("region-morton"),
+    REGION_HILBERT("region-hilbert");
+
+    static final ChunkOrder DEFAULT = REGION_HILBERT;
+
+    // Compile-time constants only: the enum constructors run before any other static initializer.
+    private static final int REGION_SHIFT = 5;
+    private static final int REGION_SIZE = 1 << REGION_SHIFT;
+    private static final int SLOT_COUNT = REGION_SIZE * REGION_SIZE;
+    private static final int SLOT_BITS = 2 * REGION_SHIFT;
+    private static final int REGION_BITS = (Long.SIZE - SLOT_BITS) / 2;
+    private static final long REGION_MASK = (1L << REGION_BITS) - 1L;
+    private static final int REGION_OFFSET = 1 << (REGION_BITS - 1);
+
+    private final String configName;
+    private final int[] curvePositionOfSlot;
+    private final int[] slotAtCurvePosition;
+
+    ChunkOrder(String configName) {
+        this.configName = configName;
+        this.curvePositionOfSlot = new int[SLOT_COUNT];
+        this.slotAtCurvePosition = new int[SLOT_COUNT];
+        for (int localZ = 0; localZ < REGION_SIZE; localZ++) {
+            for (int localX = 0; localX < REGION_SIZE; localX++) {
+                int slot = localX + localZ * REGION_SIZE;
+                int position = switch (configName) {
+                    case "region-morton" -> morton(localX, localZ);
+                    case "region-hilbert" -> hilbert(localX, localZ);
+                    default -> slot;
+                };
+                this.curvePositionOfSlot[slot] = position;
+                this.slotAtCurvePosition[position] = slot;
+            }
+        }
+    }
+
+    String getConfigName() {
+        return this.configName;
+    }
+
+    /**
+     * Returns the order named {@code value} in config, or {@link #DEFAULT} when it is blank or unknown.
+     */
+    static ChunkOrder from(String value) {
+        if (value == null) {
+            return DEFAULT;
+        }
+
+        String normalized = value.trim().toLowerCase();
+        for (ChunkOrder order : values()) {
+            if (order.configName.equals(normalized)) {
+                return order;
+            }
+        }
+
+        return DEFAULT;
+    }
+
+    void sort(long[] chunkIndexes) {
+        this.sort(chunkIndexes, 0, chunkIndexes.length);
+    }
+
+    /**
+     * Sorts {@code chunkIndexes[from, to)} in place. Region orders map every index to a bijective sort key, sort the
+     * keys and map them back, so no side arrays are allocated.
+     */
+    void sort(long[] chunkIndexes, int from, int to) {
+        if (this == INDEX) {
+            Arrays.sort(chunkIndexes, from, to);
+            return;
+        }
+
+        for (int i = from; i < to; i++) {
+            // Keys compare unsigned; flipping the sign bit lets the signed sort do that.
+            chunkIndexes[i] = this.sortKey(chunkIndexes[i]) ^ Long.MIN_VALUE;
+        }
+        Arrays.sort(chunkIndexes, from, to);
+        for (int i = from; i < to; i++) {
+            chunkIndexes[i] = this.chunkIndexOf(chunkIndexes[i] ^ Long.MIN_VALUE);
+        }
+    }
+
+    private long sortKey(long chunkIndex) {
+        int chunkX = ChunkUtil.xOfChunkIndex(chunkIndex);
+        int chunkZ = ChunkUtil.zOfChunkIndex(chunkIndex);
+        long regionX = (chunkX >> REGION_SHIFT) + REGION_OFFSET;
+        long regionZ = (chunkZ >> REGION_SHIFT) + REGION_OFFSET;
+        int slot = (chunkX & (REGION_SIZE - 1)) + (chunkZ & (REGION_SIZE - 1)) * REGION_SIZE;
+        return (regionZ << (REGION_BITS + SLOT_BITS)) | (regionX << SLOT_BITS) | this.curvePositionOfSlot[slot];
+    }
+
+    private long chunkIndexOf(long sortKey) {
+        int regionZ = (int) (sortKey >>> (REGION_BITS + SLOT_BITS)) - REGION_OFFSET;
+        int regionX = (int) ((sortKey >>> SLOT_BITS) & REGION_MASK) - REGION_OFFSET;
+        int slot = this.slotAtCurvePosition[(int) (sortKey & (SLOT_COUNT - 1))];
+        return ChunkUtil.indexChunk(regionX * REGION_SIZE + slot % REGION_SIZE, regionZ * REGION_SIZE + slot / REGION_SIZE);
+    }
+
+    private static int morton(int x, int z) {
+        int position = 0;
+        for (int bit = 0; bit < REGION_SHIFT; bit++) {
+            position |= ((x >> bit) & 1) << (2 * bit);
+            position |= ((z >> bit) & 1) << (2 * bit + 1);
+        }
+        return position;
+    }
+
+    private static int hilbert(int x, int z) {
+        int position = 0;
+        for (int s = REGION_SIZE / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int rz = (z & s) > 0 ? 1 : 0;
+            position += s * s * ((3 * rx) ^ rz);
+            if (rz == 0) {
+                if (rx == 1) {
+                    x = REGION_SIZE - 1 - x;
+                    z = REGION_SIZE - 1 - z;
+                }
+                int swap = x;
+                x = z;
+                z = swap;
+            }
+        }
+        return position;
+    }
+}
@@ -0,0 +1,93 @@
+package ca.nicecube.fixbadmod.scan;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import java.util.Arrays;
+
+/**
+ * Append-only chunk queue of a job, indexed by dispatch sequence.
+ *
+ * <p>While discovery runs, {@link #append(long[])} adds the chunks not queued before behind the ones already there, so
+ * a sequence never changes its chunk. The queue only counts as drained, and its remainder is only known, once
+ * {@link #completeDiscovery()} was called. Not thread-safe: callers hold the job lock. {@link #size()} and
+ * {@link #isDiscovering()} may be read without it.
+ */
+final class ChunkQueue {
+    private final LongArrayList chunkIndexes;
+    // Dropped once discovery completes; only discovery needs to filter duplicates.
+    private LongOpenHashSet queuedChunkIndexes;
+    private volatile boolean discovering;
+    private volatile int size;
+
+    /**
+     * Takes ownership of {@code chunkIndexes}. The queue starts complete; call {@link #beginDiscovery()} to grow it.
+     */
+    ChunkQueue(long[] chunkIndexes) {
+        this.chunkIndexes = LongArrayList.wrap(chunkIndexes);
+        this.size = chunkIndexes.length;
+    }
+
+    void beginDiscovery() {
+        this.queuedChunkIndexes = new LongOpenHashSet(this.chunkIndexes);
+        this.discovering = true;
+    }
+
+    boolean isDiscovering() {
+        return this.discovering;
+    }
+
+    /**
+     * Queues the chunks not seen before, in the given order, and returns true when at least one was new. Does nothing
+     * once discovery completed.
+     */
+    boolean append(long[] chunkIndexes) {
+        if (!this.discovering) {
+            return false;
+        }
+
+        int before = this.chunkIndexes.size();
+        for (long chunkIndex : chunkIndexes) {
+            if (this.queuedChunkIndexes.add(chunkIndex)) {
+                this.chunkIndexes.add(chunkIndex);
+            }
+        }
+
+        this.size = this.chunkIndexes.size();
+        return this.size > before;
+    }
+
+    /**
+     * Ends discovery and returns the final queue length.
+     */
+    int completeDiscovery() {
+        this.discovering = false;
+        this.queuedChunkIndexes = null;
+        return this.chunkIndexes.size();
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    long get(long sequence) {
+        return this.chunkIndexes.getLong((int) sequence);
+    }
+
+    /**
+     * True once discovery completed and every chunk before {@code nextSequence} was taken.
+     */
+    boolean isDrained(long nextSequence) {
+        return !this.discovering && nextSequence >= this.chunkIndexes.size();
+    }
+
+    /**
+     * Chunks from {@code sequence} on, or null while discovery runs: the remaining queue is not known yet.
+     */
+    long[] remainingFrom(int sequence) {
+        if (this.discovering) {
+            return null;
+        }
+
+        return Arrays.copyOfRange(this.chunkIndexes.elements(), sequence, this.chunkIndexes.size());
+    }
+}
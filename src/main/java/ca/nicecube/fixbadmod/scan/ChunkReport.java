@@ -0,0 +1,59 @@
+package ca.nicecube.fixbadmod.scan;
+
+import it.unimi.dsi.fastutil.ints.Int2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Matches of one chunk for the streaming report: a count per match and the local x/y/z of block matches.
+ * Only allocated while the report is enabled, and only touched on the thread scanning the chunk until it is handed
+ * to the writer.
+ *
+ * <p>Matches are keyed by their {@link MatchBreakdown} slot, i.e. (category, interned id), so recording one does
+ * not build a string. {@link #key(int)} turns a slot into its summary key when the line is written.
+ *
+ * <p>Positions stop at {@link #MAX_POSITIONS} per chunk so a chunk made entirely of modded blocks cannot blow up a
+ * report line; counts stay exact.
+ */
+final class ChunkReport {
+    static final int MAX_POSITIONS = 4096;
+
+    final Int2IntLinkedOpenHashMap counts = new Int2IntLinkedOpenHashMap();
+    // Flattened x, y, z triples per slot.
+    final Int2ObjectLinkedOpenHashMap<IntArrayList> positions = new Int2ObjectLinkedOpenHashMap<>();
+    boolean positionsTruncated;
+    private final MatchBreakdown names;
+    private int positionCount;
+
+    ChunkReport(MatchBreakdown names) {
+        this.names = names;
+    }
+
+    void count(int slot) {
+        this.counts.addTo(slot, 1);
+    }
+
+    void position(int slot, int localX, int y, int localZ) {
+        if (this.positionCount >= MAX_POSITIONS) {
+            this.positionsTruncated = true;
+            return;
+        }
+
+        IntArrayList triples = this.positions.get(slot);
+        if (triples == null) {
+            triples = new IntArrayList();
+            this.positions.put(slot, triples);
+        }
+        triples.add(localX);
+        triples.add(y);
+        triples.add(localZ);
+        this.positionCount += 1;
+    }
+
+    /**
+     * Summary key such as {@code block:Some_Block} of a slot in {@link #counts} or {@link #positions}.
+     */
+    String key(int slot) {
+        return this.names.key(slot);
+    }
+}
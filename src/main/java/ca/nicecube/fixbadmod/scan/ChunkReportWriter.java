@@ -0,0 +1,263 @@
+package ca.nicecube.fixbadmod.scan;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends one NDJSON line per touched or failed chunk of a job to
+ * {@code <data>/reports/<world>/<mode>-<started>-<part>.ndjson}, starting a new part once a file reaches the size
+ * limit.
+ *
+ * <p>Records are queued by the job and rendered and written on the writer's own daemon thread through a buffered
+ * stream, so the world thread never does file I/O. The queue is unbounded but {@link #isBacklogged()} turns true
+ * above {@link #HIGH_WATER_RECORDS}; the job stops dispatching chunks until the writer drained below
+ * {@link #LOW_WATER_RECORDS} and calls {@code onDrained}. Memory therefore stays flat however large the world is.
+ */
+final class ChunkReportWriter {
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+    private static final String DIRECTORY_NAME = "reports";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int HIGH_WATER_RECORDS = 1024;
+    private static final int LOW_WATER_RECORDS = 256;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final long FLUSH_INTERVAL_MILLIS = 1000L;
+    private static final Record END = new Record(0L, null, null);
+
+    private final HytaleLogger logger;
+    private final String worldName;
+    private final Path directory;
+    private final String filePrefix;
+    private final long maxFileBytes;
+    private final Runnable onDrained;
+    private final LinkedBlockingQueue<Record> queue = new LinkedBlockingQueue<>();
+    private volatile boolean backlogged;
+    private volatile boolean failed;
+    private OutputStream out;
+    private int part;
+    private long fileBytes;
+    private long recordsWritten;
+
+    ChunkReportWriter(
+        HytaleLogger logger,
+        Path dataDirectory,
+        String worldName,
+        WorldSanitizerService.JobMode mode,
+        int maxFileMegabytes,
+        Runnable onDrained
+    ) {
+        this.logger = logger;
+        this.worldName = worldName;
+        this.directory = dataDirectory.resolve(DIRECTORY_NAME).resolve(BinaryCodec.sanitizeFileName(worldName));
+        this.filePrefix = mode.name().toLowerCase() + "-" + FILE_TIME.format(LocalDateTime.now());
+        this.maxFileBytes = Math.max(1, maxFileMegabytes) * 1024L * 1024L;
+        this.onDrained = onDrained;
+        Thread thread = new Thread(this::run, "FixBadMod-report-" + worldName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void touched(long chunkIndex, ChunkReport report) {
+        this.offer(new Record(chunkIndex, report, null));
+    }
+
+    void failed(long chunkIndex, Throwable error) {
+        String message = error == null ? "" : error.getClass().getSimpleName() + ": " + error.getMessage();
+        this.offer(new Record(chunkIndex, null, message));
+    }
+
+    /**
+     * True while more than {@link #HIGH_WATER_RECORDS} records wait to be written. Always false once the writer
+     * failed, so a full disk cannot stall the job.
+     */
+    boolean isBacklogged() {
+        return this.backlogged && !this.failed;
+    }
+
+    /**
+     * Writes the queued records, closes the file and lets the thread exit. Does not wait for it.
+     */
+    void close() {
+        this.queue.offer(END);
+    }
+
+    private void offer(Record record) {
+        this.queue.offer(record);
+        if (!this.backlogged && this.queue.size() > HIGH_WATER_RECORDS) {
+            this.backlogged = true;
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Record record = this.queue.poll(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (record == END) {
+                    break;
+                }
+
+                if (record == null) {
+                    this.flush();
+                } else {
+                    this.write(record);
+                }
+                // Also checked on idle polls: the producer may raise the flag after the queue already drained.
+                if (this.backlogged && this.queue.size() < LOW_WATER_RECORDS) {
+                    this.backlogged = false;
+                    this.onDrained.run();
+                }
+            }
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.closeFile();
+        }
+
+        if (this.recordsWritten > 0L) {
+            this.logger.atInfo().log(
+                "[FixBadMod] Chunk report of world '%s': %d records in %s (%d parts)",
+                this.worldName,
+                this.recordsWritten,
+                this.directory,
+                this.part
+            );
+        }
+    }
+
+    private void write(Record record) {
+        if (this.failed) {
+            return;
+        }
+
+        byte[] line = (GSON.toJson(record.toJson()) + "\n").getBytes(StandardCharsets.UTF_8);
+        try {
+            if (this.out == null || (this.fileBytes > 0L && this.fileBytes + line.length > this.maxFileBytes)) {
+                this.rotate();
+            }
+            this.out.write(line);
+            this.fileBytes += line.length;
+            this.recordsWritten += 1L;
+        } catch (IOException | RuntimeException e) {
+            this.failed = true;
+            this.logger.atWarning().withCause(e).log(
+                "[FixBadMod] Could not write the chunk report of world '%s'. The rest of this job is not reported.",
+                this.worldName
+            );
+            this.closeFile();
+        }
+    }
+
+    private void rotate() throws IOException {
+        this.closeFile();
+        Files.createDirectories(this.directory);
+        this.part += 1;
+        Path path = this.directory.resolve(String.format("%s-%03d.ndjson", this.filePrefix, this.part));
+        this.out = new BufferedOutputStream(
+            Files.newOutputStream(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+            BUFFER_BYTES
+        );
+        this.fileBytes = 0L;
+    }
+
+    private void flush() {
+        if (this.out == null || this.failed) {
+            return;
+        }
+
+        try {
+            this.out.flush();
+        } catch (IOException e) {
+            this.logger.atWarning().withCause(e).log(
+                "[FixBadMod] Could not flush the chunk report of world '%s'",
+                this.worldName
+            );
+        }
+    }
+
+    private void closeFile() {
+        if (this.out == null) {
+            return;
+        }
+
+        try {
+            this.out.close();
+        } catch (IOException e) {
+            this.logger.atWarning().withCause(e).log(
+                "[FixBadMod] Could not close the chunk report of world '%s'",
+                this.worldName
+            );
+        } finally {
+            this.out = null;
+        }
+    }
+
+    private static final class Record {
+        private final long chunkIndex;
+        private final ChunkReport report;
+        private final String error;
+
+        private Record(long chunkIndex, ChunkReport report, String error) {
+            this.chunkIndex = chunkIndex;
+            this.report = report;
+            this.error = error;
+        }
+
+        private JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("chunkX", ChunkUtil.xOfChunkIndex(this.chunkIndex));
+            json.addProperty("chunkZ", ChunkUtil.zOfChunkIndex(this.chunkIndex));
+            if (this.report == null) {
+                json.addProperty("failed", true);
+                json.addProperty("error", this.error);
+                return json;
+            }
+
+            int matches = 0;
+            JsonObject counts = new JsonObject();
+            for (Int2IntMap.Entry entry : this.report.counts.int2IntEntrySet()) {
+                counts.addProperty(this.report.key(entry.getIntKey()), entry.getIntValue());
+                matches += entry.getIntValue();
+            }
+            json.addProperty("matches", matches);
+            json.add("counts", counts);
+
+            if (!this.report.positions.isEmpty()) {
+                JsonObject positions = new JsonObject();
+                for (Int2ObjectMap.Entry<IntArrayList> entry : this.report.positions.int2ObjectEntrySet()) {
+                    IntArrayList triples = entry.getValue();
+                    JsonArray points = new JsonArray(triples.size() / 3);
+                    for (int i = 0; i + 2 < triples.size(); i += 3) {
+                        JsonArray point = new JsonArray(3);
+                        point.add(triples.getInt(i));
+                        point.add(triples.getInt(i + 1));
+                        point.add(triples.getInt(i + 2));
+                        points.add(point);
+                    }
+                    positions.add(this.report.key(entry.getIntKey()), points);
+                }
+                json.add("positions", positions);
+            }
+            if (this.report.positionsTruncated) {
+                json.addProperty("positionsTruncated", true);
+            }
+            return json;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ca.nicecube.fixbadmod.scan;
+
+/**
+ * Resumable position and results of one chunk scan. The cursor first walks the blocks that carry components, then
+ * sections, then x/z columns inside a section. Only touched on the thread that owns the chunk.
+ */
+class ChunkScanCursor {
+    static final int[] NO_BLOCKS = new int[0];
+
+    final RuleCache replacementCache = new RuleCache();
+    final boolean[] chunkModified = new boolean[] {false};
+    int[] componentBlocks = NO_BLOCKS;
+    int componentCursor;
+    int sectionIndex;
+    int column;
+    int matches;
+    // Voxels covered so far, including whole sections the palette check skipped.
+    long voxels;
+    // Per-chunk matches for the streaming report; null while the report is disabled.
+    ChunkReport report;
+}
@@ -0,0 +1,437 @@
+package ca.nicecube.fixbadmod.scan;
+
+import ca.nicecube.fixbadmod.scan.WorldSanitizerService.JobMode;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rule state of one job plus the block and container passes over a {@link ChunkAccess}. Holds everything the voxel
+ * loop needs, so it runs the same against a live chunk and against an in-memory one.
+ *
+ * <p>Only touched from the job's world thread, except for the counters in {@link #matchBreakdown} and
+ * {@link #unknownKeys}, which status polling reads.
+ */
+final class ChunkScanner {
+    // BlockType.EMPTY_ID, kept local so the scanner does not touch server asset classes.
+    private static final int EMPTY_ID = 0;
+    private static final int SECTION_HEIGHT = ChunkUtil.SIZE;
+    private static final int SECTION_COUNT = ChunkUtil.HEIGHT / SECTION_HEIGHT;
+    private static final int COLUMNS_PER_SECTION = ChunkUtil.SIZE * ChunkUtil.SIZE;
+    private static final int SECTION_VOLUME = COLUMNS_PER_SECTION * SECTION_HEIGHT;
+    private static final int[] BLOCK_POSITIONS = buildBlockPositionTable();
+
+    final JobMode mode;
+    final CompiledRuleSet rules;
+    final BlockRuleTable blockRules;
+    final MatchBreakdown matchBreakdown = new MatchBreakdown();
+    final UnknownKeyCache unknownKeys = new UnknownKeyCache();
+    private final BlockTypeLookup blockTypes;
+    private final int maxReplacementsPerChunk;
+    private final boolean autoDeleteUnknownKeys;
+
+    ChunkScanner(
+        JobMode mode,
+        List<CompiledRule> rules,
+        BlockTypeLookup blockTypes,
+        int maxReplacementsPerChunk,
+        boolean autoDeleteUnknownKeys
+    ) {
+        this.mode = mode;
+        this.rules = new CompiledRuleSet(rules);
+        this.blockRules = new BlockRuleTable(this.rules, blockTypes);
+        this.blockTypes = blockTypes;
+        this.maxReplacementsPerChunk = maxReplacementsPerChunk;
+        this.autoDeleteUnknownKeys = autoDeleteUnknownKeys;
+    }
+
+    /**
+     * Rebuilds the block rule table and forgets memoized unknown keys when the block registry was swapped, since old
+     * indexes may name different types in the new registry. Returns true if it was swapped.
+     */
+    boolean revalidate() {
+        if (!this.blockRules.revalidate()) {
+            return false;
+        }
+
+        this.unknownKeys.clear();
+        return true;
+    }
+
+    boolean isLimitReached(ChunkScanCursor cursor) {
+        return this.maxReplacementsPerChunk > 0 && cursor.matches >= this.maxReplacementsPerChunk;
+    }
+
+    /**
+     * Sorted, distinct column block indexes of {@code chunk} that carry a block component.
+     */
+    int[] componentBlocks(ChunkAccess chunk) {
+        int[] blockIndexes = chunk.componentBlockIndexes();
+        if (blockIndexes.length == 0) {
+            return ChunkScanCursor.NO_BLOCKS;
+        }
+
+        Arrays.sort(blockIndexes);
+        int distinct = 0;
+        for (int blockIndex : blockIndexes) {
+            if (blockIndex < 0 || blockIndex >= BLOCK_POSITIONS.length || BLOCK_POSITIONS[blockIndex] < 0) {
+                continue;
+            }
+            if (distinct == 0 || blockIndexes[distinct - 1] != blockIndex) {
+                blockIndexes[distinct++] = blockIndex;
+            }
+        }
+
+        return distinct == blockIndexes.length ? blockIndexes : Arrays.copyOf(blockIndexes, distinct);
+    }
+
+    /**
+     * Continues the block-state and voxel passes of {@code cursor} until {@code deadlineNanos}. Returns true once the
+     * chunk is fully scanned or reached {@code maxReplacementsPerChunk}, false when the deadline cut it short.
+     */
+    boolean scanBlocks(ChunkAccess chunk, ChunkScanCursor cursor, long deadlineNanos) {
+        while (cursor.componentCursor < cursor.componentBlocks.length) {
+            int position = BLOCK_POSITIONS[cursor.componentBlocks[cursor.componentCursor]];
+            cursor.componentCursor += 1;
+            int localX = position & 0xFF;
+            int localZ = (position >>> 8) & 0xFF;
+            int y = ChunkUtil.MIN_Y + (position >>> 16);
+            if (this.scanComponentBlock(chunk, cursor, localX, y, localZ)) {
+                return true;
+            }
+            if (cursor.componentCursor < cursor.componentBlocks.length && System.nanoTime() >= deadlineNanos) {
+                return false;
+            }
+        }
+
+        while (cursor.sectionIndex < SECTION_COUNT) {
+            if (cursor.column == 0 && !this.sectionMayMatch(chunk, cursor.sectionIndex)) {
+                cursor.sectionIndex += 1;
+                cursor.voxels += SECTION_VOLUME;
+                continue;
+            }
+
+            int sectionMinY = ChunkUtil.MIN_Y + cursor.sectionIndex * SECTION_HEIGHT;
+            while (cursor.column < COLUMNS_PER_SECTION) {
+                int localX = cursor.column / ChunkUtil.SIZE;
+                int localZ = cursor.column % ChunkUtil.SIZE;
+                for (int y = sectionMinY; y < sectionMinY + SECTION_HEIGHT; y++) {
+                    if (this.scanVoxel(chunk, cursor, localX, y, localZ)) {
+                        return true;
+                    }
+                }
+
+                cursor.column += 1;
+                cursor.voxels += SECTION_HEIGHT;
+                if (cursor.column < COLUMNS_PER_SECTION && System.nanoTime() >= deadlineNanos) {
+                    return false;
+                }
+            }
+
+            cursor.column = 0;
+            cursor.sectionIndex += 1;
+        }
+
+        return true;
+    }
+
+    void recordMatch(ChunkScanCursor cursor, MatchCategory category, String id) {
+        this.record(cursor, category, id);
+    }
+
+    CompiledRule cachedRule(RuleCache cache, MatchCategory category, String id) {
+        CompiledRule cached = cache.get(category, id);
+        if (cached != null) {
+            return cached == RuleCache.NO_RULE ? null : cached;
+        }
+
+        CompiledRule rule = this.rules.resolve(id);
+        cache.put(category, id, rule);
+        return rule;
+    }
+
+    CompiledRule cachedUnknownKeyRule(RuleCache cache, MatchCategory category, String unknownKey) {
+        CompiledRule cached = cache.get(category, unknownKey);
+        if (cached != null) {
+            return cached == RuleCache.NO_RULE ? null : cached;
+        }
+
+        CompiledRule rule = this.resolveRuleOrAutoDeleteUnknown(unknownKey);
+        cache.put(category, unknownKey, rule);
+        return rule;
+    }
+
+    String extractUnknownKey(Throwable throwable) {
+        this.unknownKeys.slowPathCount.increment();
+        return UnknownKeys.extract(throwable);
+    }
+
+    /**
+     * Scans one voxel and returns true once the chunk reached {@code maxReplacementsPerChunk}.
+     */
+    private boolean scanVoxel(ChunkAccess chunk, ChunkScanCursor cursor, int localX, int y, int localZ) {
+        int blockTypeIndex = chunk.getBlock(localX, y, localZ);
+        if (blockTypeIndex <= EMPTY_ID) {
+            return false;
+        }
+
+        byte outcome = this.blockRules.outcome(blockTypeIndex);
+        if (outcome == BlockRuleTable.NO_MATCH) {
+            return false;
+        }
+
+        String blockId;
+        CompiledRule replacementRule;
+        if (outcome == BlockRuleTable.UNKNOWN) {
+            boolean unknownBlock = this.blockRules.blockId(blockTypeIndex) == null;
+            blockId = this.resolveBlockIdFromState(chunk, blockTypeIndex, localX, y, localZ);
+            if (blockId == null || blockId.isBlank()) {
+                if (!unknownBlock) {
+                    return false;
+                }
+
+                // Fallback for unresolved unknown palette entries: remove the block to stabilize chunk loading.
+                if (this.mode == JobMode.APPLY) {
+                    boolean componentRemoved = chunk.clearBlockComponent(localX, y, localZ);
+                    boolean blockChanged = chunk.setBlock(localX, y, localZ, this.blockTypes.emptyBlockId());
+                    if (componentRemoved || blockChanged) {
+                        cursor.chunkModified[0] = true;
+                    }
+                }
+                this.recordBlockMatch(cursor, MatchCategory.UNKNOWN_BLOCK, "", localX, y, localZ);
+                cursor.matches += 1;
+                return this.isLimitReached(cursor);
+            }
+
+            replacementRule = this.cachedRule(cursor.replacementCache, MatchCategory.BLOCK, blockId);
+            if (replacementRule == null ||
+                (!replacementRule.isDelete() && replacementRule.getReplacementId().equals(blockId))) {
+                return false;
+            }
+        } else {
+            blockId = this.blockRules.blockId(blockTypeIndex);
+            replacementRule = this.blockRules.rule(blockTypeIndex);
+        }
+
+        if (this.mode == JobMode.APPLY) {
+            this.replaceBlock(chunk, cursor, localX, y, localZ, replacementRule);
+        }
+        this.recordBlockMatch(cursor, MatchCategory.BLOCK, blockId, localX, y, localZ);
+        cursor.matches += 1;
+        return this.isLimitReached(cursor);
+    }
+
+    /**
+     * Scans the block state of one component-bearing block and returns true once the chunk reached
+     * {@code maxReplacementsPerChunk}.
+     */
+    private boolean scanComponentBlock(ChunkAccess chunk, ChunkScanCursor cursor, int localX, int y, int localZ) {
+        int blockTypeIndex = chunk.getBlock(localX, y, localZ);
+        if (blockTypeIndex <= EMPTY_ID) {
+            return false;
+        }
+
+        cursor.matches += this.scanItemContainerState(chunk, cursor, blockTypeIndex, localX, y, localZ);
+        return this.isLimitReached(cursor);
+    }
+
+    private boolean sectionMayMatch(ChunkAccess chunk, int sectionIndex) {
+        boolean[] mayMatch = new boolean[] {false};
+        boolean readable = chunk.forEachPaletteEntry(sectionIndex, blockTypeIndex -> {
+            if (!mayMatch[0] && blockTypeIndex > EMPTY_ID &&
+                this.blockRules.checkedOutcome(blockTypeIndex) != BlockRuleTable.NO_MATCH) {
+                mayMatch[0] = true;
+            }
+        });
+
+        // Palette not readable: fall back to the per-voxel loop for this section.
+        return !readable || mayMatch[0];
+    }
+
+    private int scanItemContainerState(
+        ChunkAccess chunk,
+        ChunkScanCursor cursor,
+        int blockTypeIndex,
+        int localX,
+        int y,
+        int localZ
+    ) {
+        // Only a type whose asset is missing fails the same way everywhere; a known type that fails does so because
+        // of this block's own data, so it is decoded every time.
+        boolean unknownType = this.blockRules.outcome(blockTypeIndex) == BlockRuleTable.UNKNOWN;
+        String unknownKey = unknownType ? this.unknownKeys.byBlockType(blockTypeIndex) : null;
+        ChunkAccess.ItemSlots container = null;
+        if (unknownKey == null) {
+            try {
+                container = chunk.itemContainer(localX, y, localZ);
+            } catch (Throwable error) {
+                unknownKey = this.extractUnknownKey(error);
+                if (unknownKey.isBlank()) {
+                    return 0;
+                }
+                if (unknownType) {
+                    this.unknownKeys.putBlockType(blockTypeIndex, unknownKey);
+                }
+            }
+        }
+
+        if (unknownKey != null) {
+            CompiledRule replacementRule = this.cachedUnknownKeyRule(
+                cursor.replacementCache,
+                MatchCategory.STATE_ERROR,
+                unknownKey
+            );
+            if (replacementRule == null) {
+                return 0;
+            }
+
+            if (this.mode == JobMode.APPLY) {
+                this.replaceBlock(chunk, cursor, localX, y, localZ, replacementRule);
+            }
+
+            this.recordBlockMatch(cursor, MatchCategory.STATE_ERROR, unknownKey, localX, y, localZ);
+            return 1;
+        }
+
+        if (container == null) {
+            return 0;
+        }
+
+        int matches = 0;
+        boolean removeContainerBlock = false;
+        int capacity = container.capacity();
+        for (int slot = 0; slot < capacity; slot++) {
+            String itemId = container.itemId(slot);
+            if (itemId == null) {
+                continue;
+            }
+
+            CompiledRule replacementRule = this.cachedRule(cursor.replacementCache, MatchCategory.ITEM, itemId);
+            if (replacementRule == null) {
+                continue;
+            }
+
+            this.recordMatch(cursor, MatchCategory.ITEM, itemId);
+            matches += 1;
+            if (replacementRule.isDelete()) {
+                removeContainerBlock = true;
+            } else if (this.mode == JobMode.APPLY) {
+                container.clear(slot);
+                cursor.chunkModified[0] = true;
+            }
+        }
+
+        if (this.mode == JobMode.APPLY && removeContainerBlock) {
+            boolean componentRemoved = chunk.clearBlockComponent(localX, y, localZ);
+            boolean blockChanged = chunk.setBlock(localX, y, localZ, this.blockTypes.emptyBlockId());
+            if (componentRemoved || blockChanged) {
+                cursor.chunkModified[0] = true;
+            }
+        }
+
+        return matches;
+    }
+
+    private void replaceBlock(
+        ChunkAccess chunk,
+        ChunkScanCursor cursor,
+        int localX,
+        int y,
+        int localZ,
+        CompiledRule replacementRule
+    ) {
+        boolean componentRemoved = chunk.clearBlockComponent(localX, y, localZ);
+        boolean blockChanged;
+        if (replacementRule.isDelete()) {
+            blockChanged = chunk.setBlock(localX, y, localZ, this.blockTypes.emptyBlockId());
+        } else {
+            blockChanged = chunk.setBlock(localX, y, localZ, replacementRule.getReplacementId());
+        }
+
+        if (componentRemoved || blockChanged) {
+            cursor.chunkModified[0] = true;
+        }
+    }
+
+    private String resolveBlockIdFromState(ChunkAccess chunk, int blockTypeIndex, int localX, int y, int localZ) {
+        String cachedKey = this.unknownKeys.byBlockType(blockTypeIndex);
+        if (cachedKey != null) {
+            return cachedKey;
+        }
+
+        try {
+            return chunk.stateBlockId(localX, y, localZ);
+        } catch (Throwable error) {
+            String unknownKey = this.extractUnknownKey(error);
+            if (!unknownKey.isBlank()) {
+                this.unknownKeys.putBlockType(blockTypeIndex, unknownKey);
+                return unknownKey;
+            }
+            return "";
+        }
+    }
+
+    private CompiledRule resolveRuleOrAutoDeleteUnknown(String unknownKey) {
+        CompiledRule configuredRule = this.rules.resolve(unknownKey);
+        if (configuredRule != null) {
+            return configuredRule;
+        }
+
+        if (!this.autoDeleteUnknownKeys) {
+            return null;
+        }
+
+        return new CompiledRule(RuleMode.EXACT, unknownKey, this.blockTypes.emptyBlockId(), true);
+    }
+
+    private void recordBlockMatch(
+        ChunkScanCursor cursor,
+        MatchCategory category,
+        String id,
+        int localX,
+        int y,
+        int localZ
+    ) {
+        int slot = this.record(cursor, category, id);
+        if (cursor.report != null) {
+            cursor.report.position(slot, localX, y, localZ);
+        }
+    }
+
+    /**
+     * Counts a match in the job breakdown and the chunk report, and returns its breakdown slot.
+     */
+    private int record(ChunkScanCursor cursor, MatchCategory category, String id) {
+        int slot = this.matchBreakdown.record(category, id == null ? "" : id);
+        if (cursor.report != null) {
+            cursor.report.count(slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Maps every {@link ChunkUtil#indexBlockInColumn} value back to its position, packed as
+     * {@code x | z << 8 | (y - MIN_Y) << 16}. Indexes that no position produces map to -1.
+     */
+    private static int[] buildBlockPositionTable() {
+        int maxIndex = 0;
+        for (int y = ChunkUtil.MIN_Y; y < ChunkUtil.MIN_Y + ChunkUtil.HEIGHT; y++) {
+            for (int z = 0; z < ChunkUtil.SIZE; z++) {
+                for (int x = 0; x < ChunkUtil.SIZE; x++) {
+                    maxIndex = Math.max(maxIndex, ChunkUtil.indexBlockInColumn(x, y, z));
+                }
+            }
+        }
+
+        int[] positions = new int[maxIndex + 1];
+        Arrays.fill(positions, -1);
+        for (int y = ChunkUtil.MIN_Y; y < ChunkUtil.MIN_Y + ChunkUtil.HEIGHT; y++) {
+            for (int z = 0; z < ChunkUtil.SIZE; z++) {
+                for (int x = 0; x < ChunkUtil.SIZE; x++) {
+                    positions[ChunkUtil.indexBlockInColumn(x, y, z)] = x | z << 8 | (y - ChunkUtil.MIN_Y) << 16;
+                }
+            }
+        }
+        return positions;
+    }
+}
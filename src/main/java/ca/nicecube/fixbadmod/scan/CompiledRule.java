@@ -0,0 +1,26 @@
+package ca.nicecube.fixbadmod.scan;
+
+/**
+ * An enabled config rule with its replacement resolved to a block id.
+ */
+final class CompiledRule {
+    final RuleMode mode;
+    final String match;
+    final String replacementId;
+    final boolean delete;
+
+    CompiledRule(RuleMode mode, String match, String replacementId, boolean delete) {
+        this.mode = mode;
+        this.match = match;
+        this.replacementId = replacementId;
+        this.delete = delete;
+    }
+
+    String getReplacementId() {
+        return this.replacementId;
+    }
+
+    boolean isDelete() {
+        return this.delete;
+    }
+}
@@ -0,0 +1,30 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.util.List;
+
+/**
+ * Job rules in config order, resolved through a {@link RuleMatcher} so lookups do not scale with rule count.
+ */
+final class CompiledRuleSet {
+    private final List<CompiledRule> rules;
+    private final RuleMatcher matcher;
+
+    CompiledRuleSet(List<CompiledRule> rules) {
+        this.rules = List.copyOf(rules);
+        RuleMatcher.Builder builder = RuleMatcher.builder();
+        for (int ordinal = 0; ordinal < this.rules.size(); ordinal++) {
+            CompiledRule rule = this.rules.get(ordinal);
+            switch (rule.mode) {
+                case EXACT -> builder.addExact(rule.match, ordinal);
+                case PREFIX -> builder.addPrefix(rule.match, ordinal);
+                case CONTAINS -> builder.addContains(rule.match, ordinal);
+            }
+        }
+        this.matcher = builder.build();
+    }
+
+    CompiledRule resolve(String blockId) {
+        int ordinal = this.matcher.firstMatch(blockId);
+        return ordinal == RuleMatcher.NO_MATCH ? null : this.rules.get(ordinal);
+    }
+}
@@ -0,0 +1,269 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Periodic progress checkpoints of running jobs under {@code <data>/checkpoints/<world>-<hash>.bin}. A file whose
+ * stored world name differs from the requested one is rejected.
+ *
+ * <p>A checkpoint holds the job mode, identity checks, counters, match breakdown, the chunks touched or failed so far
+ * and the chunks still to process in queue order. Files are written to a temp file and atomically moved in place.
+ *
+ * <p>Writes and deletes of one world are serialized and fenced by a generation. A job {@link #claim(String) claims} a
+ * new generation when it starts and only writes while that generation is current. Any delete also starts a new
+ * generation. A late async write of an earlier job therefore can never resurrect a deleted checkpoint or replace the
+ * checkpoint of the job that took over the world.
+ */
+final class JobCheckpointStore {
+    private static final int MAGIC = 0x46424D43;
+    private static final int VERSION = 1;
+    private static final String DIRECTORY_NAME = "checkpoints";
+    private static final String FILE_SUFFIX = ".bin";
+
+    private final Path directory;
+    private final Map<String, Generation> generations = new ConcurrentHashMap<>();
+
+    JobCheckpointStore(Path dataDirectory) {
+        this.directory = dataDirectory.resolve(DIRECTORY_NAME);
+    }
+
+    /**
+     * Starts a new checkpoint generation for {@code worldName} and returns it.
+     */
+    long claim(String worldName) {
+        Generation generation = this.generation(worldName);
+        synchronized (generation) {
+            return ++generation.current;
+        }
+    }
+
+    /**
+     * Writes {@code checkpoint} if {@code generation} is still current for its world. Returns false when a later
+     * claim or a delete took over, in which case nothing is written.
+     */
+    boolean save(Checkpoint checkpoint, long generation) throws IOException {
+        Generation current = this.generation(checkpoint.worldName);
+        synchronized (current) {
+            if (current.current != generation) {
+                return false;
+            }
+
+            this.write(checkpoint);
+            return true;
+        }
+    }
+
+    private void write(Checkpoint checkpoint) throws IOException {
+        Files.createDirectories(this.directory);
+        Path target = this.pathFor(checkpoint.worldName);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (OutputStream fileOut = Files.newOutputStream(temp)) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fileOut), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(checkpoint.mode.name());
+            out.writeUTF(checkpoint.worldName);
+            out.writeUTF(checkpoint.worldSaveIdentity);
+            out.writeUTF(checkpoint.rulesSignature);
+            out.writeLong(checkpoint.savedAt.toEpochMilli());
+            BinaryCodec.writeVarLong(out, checkpoint.processedChunks);
+            BinaryCodec.writeVarLong(out, checkpoint.touchedChunks);
+            BinaryCodec.writeVarLong(out, checkpoint.failedChunks);
+            BinaryCodec.writeVarLong(out, checkpoint.totalMatches);
+            BinaryCodec.writeVarLong(out, checkpoint.matchBreakdown.size());
+            for (Map.Entry<String, Long> entry : checkpoint.matchBreakdown.entrySet()) {
+                out.writeUTF(entry.getKey());
+                BinaryCodec.writeVarLong(out, entry.getValue());
+            }
+            BinaryCodec.writeChunkIndexes(out, checkpoint.touchedChunkIndexes, 0, checkpoint.touchedChunkIndexes.length);
+            BinaryCodec.writeChunkIndexes(out, checkpoint.failedChunkIndexes, 0, checkpoint.failedChunkIndexes.length);
+            BinaryCodec.writeChunkIndexes(out, checkpoint.remainingChunkIndexes, 0, checkpoint.remainingChunkIndexes.length);
+            out.flush();
+            long crc = checked.getChecksum().getValue();
+            out.writeInt((int) crc);
+            out.flush();
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the last checkpoint of {@code worldName}, or null when none exists.
+     */
+    Checkpoint load(String worldName) throws IOException {
+        Path path = this.pathFor(worldName);
+        if (Files.notExists(path)) {
+            return null;
+        }
+
+        long fileSize = Files.size(path);
+        try (InputStream fileIn = Files.newInputStream(path)) {
+            CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(fileIn), new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a FixBadMod checkpoint file: " + path.toAbsolutePath());
+            }
+
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version + " in " + path.toAbsolutePath());
+            }
+
+            WorldSanitizerService.JobMode mode;
+            try {
+                mode = WorldSanitizerService.JobMode.valueOf(in.readUTF());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown job mode in checkpoint " + path.toAbsolutePath(), e);
+            }
+
+            String storedWorldName = in.readUTF();
+            if (!storedWorldName.equals(worldName)) {
+                throw new IOException(
+                    "Checkpoint file " + path.toAbsolutePath() + " belongs to world '" + storedWorldName + "'"
+                );
+            }
+
+            String worldSaveIdentity = in.readUTF();
+            String rulesSignature = in.readUTF();
+            Instant savedAt = Instant.ofEpochMilli(in.readLong());
+            int processedChunks = (int) BinaryCodec.readVarLong(in);
+            int touchedChunks = (int) BinaryCodec.readVarLong(in);
+            int failedChunks = (int) BinaryCodec.readVarLong(in);
+            long totalMatches = BinaryCodec.readVarLong(in);
+            int breakdownSize = BinaryCodec.readCount(in, fileSize);
+            Map<String, Long> matchBreakdown = new LinkedHashMap<>();
+            for (int i = 0; i < breakdownSize; i++) {
+                String key = in.readUTF();
+                matchBreakdown.put(key, BinaryCodec.readVarLong(in));
+            }
+            long[] touchedChunkIndexes = BinaryCodec.readChunkIndexes(in, fileSize);
+            long[] failedChunkIndexes = BinaryCodec.readChunkIndexes(in, fileSize);
+            long[] remainingChunkIndexes = BinaryCodec.readChunkIndexes(in, fileSize);
+
+            long expectedCrc = checked.getChecksum().getValue();
+            if (in.readInt() != (int) expectedCrc) {
+                throw new IOException("Checksum mismatch in checkpoint file " + path.toAbsolutePath());
+            }
+
+            return new Checkpoint(
+                mode,
+                storedWorldName,
+                worldSaveIdentity,
+                rulesSignature,
+                savedAt,
+                processedChunks,
+                touchedChunks,
+                failedChunks,
+                totalMatches,
+                matchBreakdown,
+                touchedChunkIndexes,
+                failedChunkIndexes,
+                remainingChunkIndexes
+            );
+        }
+    }
+
+    /**
+     * Deletes the checkpoint of {@code worldName} and starts a new generation, so pending writes are dropped.
+     */
+    void delete(String worldName) throws IOException {
+        Generation generation = this.generation(worldName);
+        synchronized (generation) {
+            generation.current += 1;
+            Files.deleteIfExists(this.pathFor(worldName));
+        }
+    }
+
+    /**
+     * Like {@link #delete(String)}, but only while {@code generation} is current: a job that finishes after another
+     * one took over its world must not delete the newer job's checkpoint. Returns false when nothing was deleted.
+     */
+    boolean delete(String worldName, long generation) throws IOException {
+        Generation current = this.generation(worldName);
+        synchronized (current) {
+            if (current.current != generation) {
+                return false;
+            }
+
+            current.current += 1;
+            Files.deleteIfExists(this.pathFor(worldName));
+            return true;
+        }
+    }
+
+    private Generation generation(String worldName) {
+        return this.generations.computeIfAbsent(worldName, name -> new Generation());
+    }
+
+    private Path pathFor(String worldName) {
+        return this.directory.resolve(BinaryCodec.stateFileName(worldName) + FILE_SUFFIX);
+    }
+
+    private static final class Generation {
+        private long current;
+    }
+
+    static final class Checkpoint {
+        final WorldSanitizerService.JobMode mode;
+        final String worldName;
+        final String worldSaveIdentity;
+        final String rulesSignature;
+        final Instant savedAt;
+        final int processedChunks;
+        final int touchedChunks;
+        final int failedChunks;
+        final long totalMatches;
+        final Map<String, Long> matchBreakdown;
+        final long[] touchedChunkIndexes;
+        final long[] failedChunkIndexes;
+        final long[] remainingChunkIndexes;
+
+        Checkpoint(
+            WorldSanitizerService.JobMode mode,
+            String worldName,
+            String worldSaveIdentity,
+            String rulesSignature,
+            Instant savedAt,
+            int processedChunks,
+            int touchedChunks,
+            int failedChunks,
+            long totalMatches,
+            Map<String, Long> matchBreakdown,
+            long[] touchedChunkIndexes,
+            long[] failedChunkIndexes,
+            long[] remainingChunkIndexes
+        ) {
+            this.mode = mode;
+            this.worldName = worldName;
+            this.worldSaveIdentity = worldSaveIdentity;
+            this.rulesSignature = rulesSignature;
+            this.savedAt = savedAt;
+            this.processedChunks = processedChunks;
+            this.touchedChunks = touchedChunks;
+            this.failedChunks = failedChunks;
+            this.totalMatches = totalMatches;
+            this.matchBreakdown = matchBreakdown;
+            this.touchedChunkIndexes = touchedChunkIndexes;
+            this.failedChunkIndexes = failedChunkIndexes;
+            this.remainingChunkIndexes = remainingChunkIndexes;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Lock-free log-linear histogram of nanosecond durations. Every power of two is split into eight buckets, so a
+ * reported percentile is at most 12.5% above the true value; {@link #max()} is exact.
+ *
+ * <p>{@link #record(long)} is a couple of bit operations and one atomic increment and may be called from any thread.
+ * Reads may miss samples recorded concurrently.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        this.buckets.incrementAndGet(bucketOf(value));
+        this.max.accumulate(value);
+    }
+
+    long count() {
+        long count = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += this.buckets.get(i);
+        }
+        return count;
+    }
+
+    long max() {
+        return this.max.get();
+    }
+
+    /**
+     * Upper bound of the bucket holding the {@code quantile} sample, in nanoseconds, or 0 when nothing was recorded.
+     */
+    long percentile(double quantile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = this.buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), this.max());
+            }
+        }
+        return this.max();
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + width - 1;
+    }
+}
@@ -0,0 +1,163 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-job match counts keyed by (category, id) without building strings on the hot path.
+ *
+ * <p>Every id is interned once into a dense symbol. Counts live in paged {@link AtomicLongArray}s at slot
+ * {@code symbol * categoryCount + category.ordinal()}. Summary keys such as {@code block:Some_Block} are only built by
+ * {@link #key(int)} and {@link #toMap()}. Safe for concurrent use.
+ */
+final class MatchBreakdown {
+    private static final int PAGE_SHIFT = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final Map<String, Integer> symbols = new ConcurrentHashMap<>();
+    private final Object growLock = new Object();
+    private volatile String[] names = new String[64];
+    private volatile AtomicLongArray[] pages = new AtomicLongArray[0];
+    private int symbolCount;
+
+    /**
+     * Counts one match and returns its slot, which {@link #key(int)} turns back into a summary key.
+     */
+    int record(MatchCategory category, String id) {
+        int slot = this.intern(id) * MatchCategory.count() + category.ordinal();
+        this.addToSlot(slot, 1L);
+        return slot;
+    }
+
+    void add(MatchCategory category, String id, long delta) {
+        this.addToSlot(this.intern(id) * MatchCategory.count() + category.ordinal(), delta);
+    }
+
+    /**
+     * Summary key such as {@code block:Some_Block} of a slot returned by {@link #record}.
+     */
+    String key(int slot) {
+        int categoryCount = MatchCategory.count();
+        return MatchCategory.ofOrdinal(slot % categoryCount).format(this.names[slot / categoryCount]);
+    }
+
+    private void addToSlot(int slot, long delta) {
+        int pageIndex = slot >>> PAGE_SHIFT;
+        AtomicLongArray[] current = this.pages;
+        AtomicLongArray page = pageIndex < current.length ? current[pageIndex] : null;
+        if (page == null) {
+            page = this.ensurePage(pageIndex);
+        }
+        page.addAndGet(slot & PAGE_MASK, delta);
+    }
+
+    /**
+     * Merges summary keys written by {@link #toMap()}; keys with an unknown category label are ignored.
+     */
+    void addAll(Map<String, Long> counts) {
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            String key = entry.getKey();
+            int separator = key.indexOf(':');
+            String label = separator < 0 ? key : key.substring(0, separator);
+            String id = separator < 0 ? "" : key.substring(separator + 1);
+            MatchCategory category = MatchCategory.fromLabel(label);
+            if (category != null) {
+                this.add(category, id, entry.getValue());
+            }
+        }
+    }
+
+    Map<String, Long> toMap() {
+        AtomicLongArray[] currentPages = this.pages;
+        Map<String, Long> counts = new HashMap<>();
+        for (int pageIndex = 0; pageIndex < currentPages.length; pageIndex++) {
+            AtomicLongArray page = currentPages[pageIndex];
+            if (page == null) {
+                continue;
+            }
+
+            for (int offset = 0; offset < PAGE_SIZE; offset++) {
+                long count = page.get(offset);
+                if (count == 0L) {
+                    continue;
+                }
+
+                // Read names after the count: a symbol's name is published before any count can use it.
+                counts.put(this.key((pageIndex << PAGE_SHIFT) | offset), count);
+            }
+        }
+
+        return counts;
+    }
+
+    /**
+     * Top {@code limit} entries of a {@link #toMap()} snapshot by count, as {@code key=count, ...}.
+     */
+    static String summarize(Map<String, Long> matchBreakdown, int limit) {
+        if (matchBreakdown == null || matchBreakdown.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        matchBreakdown.entrySet().stream()
+            .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
+            .limit(limit)
+            .forEachOrdered(entry -> {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(entry.getKey()).append('=').append(entry.getValue());
+            });
+
+        return sb.toString();
+    }
+
+    private int intern(String id) {
+        Integer symbol = this.symbols.get(id);
+        if (symbol != null) {
+            return symbol;
+        }
+
+        synchronized (this.growLock) {
+            symbol = this.symbols.get(id);
+            if (symbol != null) {
+                return symbol;
+            }
+
+            int next = this.symbolCount;
+            String[] currentNames = this.names;
+            if (next == currentNames.length) {
+                String[] grown = new String[currentNames.length * 2];
+                System.arraycopy(currentNames, 0, grown, 0, currentNames.length);
+                currentNames = grown;
+            }
+            currentNames[next] = id;
+            // Publish the name before the symbol so readers that see the symbol can resolve it.
+            this.names = currentNames;
+            this.symbolCount = next + 1;
+            this.symbols.put(id, next);
+            return next;
+        }
+    }
+
+    private AtomicLongArray ensurePage(int pageIndex) {
+        synchronized (this.growLock) {
+            AtomicLongArray[] current = this.pages;
+            if (pageIndex < current.length && current[pageIndex] != null) {
+                return current[pageIndex];
+            }
+
+            AtomicLongArray[] grown = current;
+            if (pageIndex >= current.length) {
+                grown = new AtomicLongArray[Math.max(pageIndex + 1, current.length * 2)];
+                System.arraycopy(current, 0, grown, 0, current.length);
+            }
+            grown[pageIndex] = new AtomicLongArray(PAGE_SIZE);
+            this.pages = grown;
+            return grown[pageIndex];
+        }
+    }
+}
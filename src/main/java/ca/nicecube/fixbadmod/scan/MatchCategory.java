@@ -0,0 +1,52 @@
+package ca.nicecube.fixbadmod.scan;
+
+/**
+ * Where a match was found. The label is the prefix printed in match summaries, as {@code label:id}.
+ */
+enum MatchCategory {
+    BLOCK("block"),
+    UNKNOWN_BLOCK("unknown-block"),
+    STATE_ERROR("state-error"),
+    ITEM("item"),
+    BLOCK_COMPONENT_HOLDER("blockcomponent-holder"),
+    BLOCK_COMPONENT_HOLDER_UNKNOWN("blockcomponent-holder-unknown"),
+    BLOCK_COMPONENT_REF("blockcomponent-ref"),
+    BLOCK_COMPONENT_REF_UNKNOWN("blockcomponent-ref-unknown"),
+    ENTITY_REF("entity-ref"),
+    ENTITY_REF_UNKNOWN("entity-ref-unknown"),
+    ENTITY_HOLDER("entity-holder"),
+    ENTITY_HOLDER_UNKNOWN("entity-holder-unknown");
+
+    private static final MatchCategory[] VALUES = values();
+
+    private final String label;
+
+    MatchCategory(String label) {
+        this.label = label;
+    }
+
+    static MatchCategory ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    static int count() {
+        return VALUES.length;
+    }
+
+    /**
+     * Returns the category whose label is {@code label}, or null.
+     */
+    static MatchCategory fromLabel(String label) {
+        for (MatchCategory category : VALUES) {
+            if (category.label.equals(label)) {
+                return category;
+            }
+        }
+
+        return null;
+    }
+
+    String format(String id) {
+        return id.isEmpty() ? this.label : this.label + ':' + id;
+    }
+}
@@ -0,0 +1,434 @@
+package ca.nicecube.fixbadmod.scan;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.hypixel.hytale.logger.HytaleLogger;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Periodically writes job metrics to {@code <data>/metrics.prom} (Prometheus text format) or
+ * {@code <data>/metrics.json} for file-based scrapers.
+ *
+ * <p>Runs on its own daemon thread and only reads lock-free job snapshots, so it never touches a world thread. Each
+ * write goes to a temp file that is atomically moved over the previous one; readers never see a partial file.
+ *
+ * <p>Every series is a gauge. Per-job totals start over with every job of a world, so they carry no {@code _total}
+ * suffix; a counter that drops back to zero would read as a process restart to {@code rate()}.
+ */
+final class MetricsExporter {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final HytaleLogger logger;
+    private final Path dataDirectory;
+    private final Supplier<WorldSanitizerService.AggregateStatus> statusSource;
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> schedule;
+    private Format format = Format.PROMETHEUS;
+    private int intervalSeconds;
+
+    MetricsExporter(
+        HytaleLogger logger,
+        Path dataDirectory,
+        Supplier<WorldSanitizerService.AggregateStatus> statusSource
+    ) {
+        this.logger = logger;
+        this.dataDirectory = dataDirectory;
+        this.statusSource = statusSource;
+    }
+
+    /**
+     * Starts, reschedules or stops the export. An interval of {@code 0} or less disables it; the last written file
+     * is left in place.
+     */
+    synchronized void configure(int intervalSeconds, String format) {
+        Format nextFormat = Format.from(format);
+        if (intervalSeconds == this.intervalSeconds && nextFormat == this.format) {
+            return;
+        }
+
+        this.cancelSchedule();
+        this.intervalSeconds = intervalSeconds;
+        this.format = nextFormat;
+        if (intervalSeconds <= 0) {
+            return;
+        }
+
+        if (this.executor == null) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "FixBadMod-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        Format scheduledFormat = this.format;
+        this.schedule = this.executor.scheduleWithFixedDelay(
+            () -> this.export(scheduledFormat),
+            0L,
+            intervalSeconds,
+            TimeUnit.SECONDS
+        );
+    }
+
+    /**
+     * Writes a final file when the export is enabled, then stops the export thread.
+     */
+    synchronized void stop() {
+        this.cancelSchedule();
+        if (this.executor == null) {
+            return;
+        }
+
+        if (this.intervalSeconds > 0) {
+            Format finalFormat = this.format;
+            this.executor.execute(() -> this.export(finalFormat));
+        }
+        this.executor.shutdown();
+        this.executor = null;
+        this.intervalSeconds = 0;
+    }
+
+    private void cancelSchedule() {
+        if (this.schedule != null) {
+            this.schedule.cancel(false);
+            this.schedule = null;
+        }
+    }
+
+    private void export(Format format) {
+        try {
+            WorldSanitizerService.AggregateStatus status = this.statusSource.get();
+            Instant now = Instant.now();
+            String content = format == Format.JSON ? renderJson(status, now) : renderPrometheus(status, now);
+
+            Files.createDirectories(this.dataDirectory);
+            Path target = this.dataDirectory.resolve(format.fileName);
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.writeString(temp, content, StandardCharsets.UTF_8);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // Keep the schedule alive: a failed write must not stop later exports.
+            this.logger.atWarning().withCause(e).log(
+                "[FixBadMod] Failed to write metrics file to %s",
+                this.dataDirectory.toAbsolutePath()
+            );
+        }
+    }
+
+    static String renderPrometheus(WorldSanitizerService.AggregateStatus status, Instant now) {
+        PrometheusWriter out = new PrometheusWriter(status.getJobs());
+        out.gauge("fixbadmod_export_timestamp_seconds", "Unix time of this export.", now.toEpochMilli() / 1000.0d);
+        out.gauge("fixbadmod_running_jobs", "Jobs currently running.", status.getRunningJobs());
+        out.gauge(
+            "fixbadmod_chunk_loads_in_flight",
+            "Chunk loads in flight across all worlds.",
+            status.getChunkLoadsInFlight()
+        );
+        out.gauge(
+            "fixbadmod_chunk_loads_limit",
+            "globalMaxInFlightChunks, 0 when the cap is disabled.",
+            status.getGlobalMaxInFlightChunks()
+        );
+
+        out.perJob("fixbadmod_job_running", "1 while the job runs.", job -> job.isRunning() ? 1 : 0);
+        out.perJob(
+            "fixbadmod_job_cancelled",
+            "1 when the job was cancelled.",
+            job -> job.isCancelled() ? 1 : 0
+        );
+        out.perJob(
+            "fixbadmod_job_chunks",
+            "Chunks queued for the job; a lower bound while discovering.",
+            WorldSanitizerService.JobStatus::getTotalChunks
+        );
+        out.perJob(
+            "fixbadmod_job_chunks_processed",
+            "Chunks processed.",
+            WorldSanitizerService.JobStatus::getProcessedChunks
+        );
+        out.perJob(
+            "fixbadmod_job_chunks_touched",
+            "Chunks with at least one match.",
+            WorldSanitizerService.JobStatus::getTouchedChunks
+        );
+        out.perJob(
+            "fixbadmod_job_chunks_failed",
+            "Chunks that failed to load or scan.",
+            WorldSanitizerService.JobStatus::getFailedChunks
+        );
+        out.perJob(
+            "fixbadmod_job_matches",
+            "Matches found (SCAN) or replaced (APPLY).",
+            WorldSanitizerService.JobStatus::getTotalMatches
+        );
+        out.perJob(
+            "fixbadmod_job_chunks_per_second",
+            "Average chunks processed per second.",
+            WorldSanitizerService.JobStatus::getChunksPerSecond
+        );
+        out.perJob(
+            "fixbadmod_job_chunk_rate",
+            "Chunks processed per second, averaged over about one minute.",
+            WorldSanitizerService.JobStatus::getChunkRate
+        );
+        out.perJob(
+            "fixbadmod_job_voxel_rate",
+            "Block positions covered per second, averaged over about one minute.",
+            WorldSanitizerService.JobStatus::getVoxelRate
+        );
+        out.perJob(
+            "fixbadmod_job_match_rate",
+            "Matches per second, averaged over about one minute.",
+            WorldSanitizerService.JobStatus::getMatchRate
+        );
+        out.perJob(
+            "fixbadmod_job_eta_seconds",
+            "Estimated seconds left at the current chunk rate; -1 while unknown.",
+            WorldSanitizerService.JobStatus::getEtaSeconds
+        );
+        out.perJob(
+            "fixbadmod_job_in_flight_chunks",
+            "Chunks dispatched and not completed.",
+            WorldSanitizerService.JobStatus::getInFlightChunks
+        );
+        out.perJob(
+            "fixbadmod_job_resident_chunks",
+            "Chunks the job loaded that are still held, waiting to be scanned or released.",
+            WorldSanitizerService.JobStatus::getResidentJobChunks
+        );
+        out.perJob(
+            "fixbadmod_job_retained_chunks",
+            "Chunks the job loaded and scanned but left loaded for the server to save and unload.",
+            WorldSanitizerService.JobStatus::getRetainedJobChunks
+        );
+        out.perJob(
+            "fixbadmod_job_pending_chunks",
+            "Chunks not dispatched yet.",
+            WorldSanitizerService.JobStatus::getPendingChunks
+        );
+        out.perJob(
+            "fixbadmod_job_scan_queue_depth",
+            "Loaded chunks waiting for the world thread.",
+            WorldSanitizerService.JobStatus::getScanQueueDepth
+        );
+        out.perJob(
+            "fixbadmod_job_concurrency_limit",
+            "Chunks the adaptive throttle lets the job have in flight; 0 while dispatch is paused.",
+            WorldSanitizerService.JobStatus::getConcurrencyLimit
+        );
+        out.perJob(
+            "fixbadmod_job_world_thread_lag_seconds",
+            "Wait of the last world-thread probe; -1 when not measured.",
+            job -> job.getWorldThreadLagMillis() >= 0.0d ? job.getWorldThreadLagMillis() / 1000.0d : -1.0d
+        );
+        out.perJob(
+            "fixbadmod_job_elapsed_seconds",
+            "Seconds since the job started.",
+            WorldSanitizerService.JobStatus::getElapsedSeconds
+        );
+        out.perJob(
+            "fixbadmod_job_seconds_since_progress",
+            "Seconds since the last chunk completed.",
+            WorldSanitizerService.JobStatus::getSecondsSinceProgress
+        );
+        out.phaseLatencies();
+        return out.toString();
+    }
+
+    static String renderJson(WorldSanitizerService.AggregateStatus status, Instant now) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("timestamp", now.toString());
+        root.put("runningJobs", status.getRunningJobs());
+        root.put("chunkLoadsInFlight", status.getChunkLoadsInFlight());
+        root.put("globalMaxInFlightChunks", status.getGlobalMaxInFlightChunks());
+
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (WorldSanitizerService.JobStatus job : status.getJobs()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("world", job.getWorldName());
+            entry.put("mode", job.getMode().name());
+            entry.put("running", job.isRunning());
+            entry.put("cancelled", job.isCancelled());
+            entry.put("totalChunks", job.getTotalChunks());
+            entry.put("totalEstimated", job.isTotalEstimated());
+            entry.put("processedChunks", job.getProcessedChunks());
+            entry.put("touchedChunks", job.getTouchedChunks());
+            entry.put("failedChunks", job.getFailedChunks());
+            entry.put("matches", job.getTotalMatches());
+            entry.put("chunksPerSecond", job.getChunksPerSecond());
+            entry.put("chunkRate", job.getChunkRate());
+            entry.put("voxelRate", job.getVoxelRate());
+            entry.put("matchRate", job.getMatchRate());
+            entry.put("etaSeconds", job.getEtaSeconds());
+            entry.put("inFlightChunks", job.getInFlightChunks());
+            entry.put("residentChunks", job.getResidentJobChunks());
+            entry.put("retainedChunks", job.getRetainedJobChunks());
+            entry.put("pendingChunks", job.getPendingChunks());
+            entry.put("scanQueueDepth", job.getScanQueueDepth());
+            entry.put("concurrencyLimit", job.getConcurrencyLimit());
+            entry.put(
+                "worldThreadLagSeconds",
+                job.getWorldThreadLagMillis() >= 0.0d ? job.getWorldThreadLagMillis() / 1000.0d : -1.0d
+            );
+            entry.put("elapsedSeconds", job.getElapsedSeconds());
+            entry.put("secondsSinceProgress", job.getSecondsSinceProgress());
+
+            Map<String, Object> phases = new LinkedHashMap<>();
+            for (WorldSanitizerService.PhaseTiming timing : job.getPhaseTimings()) {
+                Map<String, Object> phase = new LinkedHashMap<>();
+                phase.put("samples", timing.getSamples());
+                phase.put("p50Seconds", seconds(timing.getP50Nanos()));
+                phase.put("p95Seconds", seconds(timing.getP95Nanos()));
+                phase.put("p99Seconds", seconds(timing.getP99Nanos()));
+                phase.put("maxSeconds", seconds(timing.getMaxNanos()));
+                phases.put(metricName(timing.getPhase()), phase);
+            }
+            entry.put("phases", phases);
+            jobs.add(entry);
+        }
+        root.put("jobs", jobs);
+        return GSON.toJson(root);
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0d;
+    }
+
+    /**
+     * Phase label as a metric-friendly name, e.g. {@code world-thread queue} becomes {@code world_thread_queue}.
+     */
+    private static String metricName(String label) {
+        return label.replace(' ', '_').replace('-', '_');
+    }
+
+    private enum Format {
+        PROMETHEUS("prometheus", "metrics.prom"),
+        JSON("json", "metrics.json");
+
+        private final String configName;
+        private final String fileName;
+
+        Format(String configName, String fileName) {
+            this.configName = configName;
+            this.fileName = fileName;
+        }
+
+        private static Format from(String value) {
+            if (value != null) {
+                String normalized = value.trim().toLowerCase(Locale.ROOT);
+                for (Format format : values()) {
+                    if (format.configName.equals(normalized)) {
+                        return format;
+                    }
+                }
+            }
+
+            return PROMETHEUS;
+        }
+    }
+
+    private static final class PrometheusWriter {
+        private static final String[] QUANTILES = {"0.5", "0.95", "0.99", "1"};
+
+        private final StringBuilder text = new StringBuilder(4096);
+        private final List<WorldSanitizerService.JobStatus> jobs;
+        private final List<String> jobLabels;
+
+        private PrometheusWriter(List<WorldSanitizerService.JobStatus> jobs) {
+            this.jobs = jobs;
+            this.jobLabels = new ArrayList<>(jobs.size());
+            for (WorldSanitizerService.JobStatus job : jobs) {
+                this.jobLabels.add(
+                    "world=\"" + escape(job.getWorldName()) + "\",mode=\"" +
+                        job.getMode().name().toLowerCase(Locale.ROOT) + "\""
+                );
+            }
+        }
+
+        private void gauge(String name, String help, double value) {
+            this.family(name, help);
+            this.sample(name, "", value);
+        }
+
+        private void perJob(String name, String help, ToDoubleFunction<WorldSanitizerService.JobStatus> value) {
+            this.family(name, help);
+            for (int i = 0; i < this.jobs.size(); i++) {
+                this.sample(name, this.jobLabels.get(i), value.applyAsDouble(this.jobs.get(i)));
+            }
+        }
+
+        /**
+         * Percentiles as {@code quantile} labels; {@code quantile="1"} is the exact maximum.
+         */
+        private void phaseLatencies() {
+            String latencyName = "fixbadmod_phase_latency_seconds";
+            String samplesName = "fixbadmod_phase_samples";
+            this.family(latencyName, "Per-phase latency percentiles.");
+            for (int i = 0; i < this.jobs.size(); i++) {
+                for (WorldSanitizerService.PhaseTiming timing : this.jobs.get(i).getPhaseTimings()) {
+                    String labels = this.jobLabels.get(i) + ",phase=\"" + metricName(timing.getPhase()) + "\"";
+                    long[] values = {
+                        timing.getP50Nanos(),
+                        timing.getP95Nanos(),
+                        timing.getP99Nanos(),
+                        timing.getMaxNanos()
+                    };
+                    for (int q = 0; q < QUANTILES.length; q++) {
+                        this.sample(latencyName, labels + ",quantile=\"" + QUANTILES[q] + "\"", seconds(values[q]));
+                    }
+                }
+            }
+
+            this.family(samplesName, "Samples behind each phase latency.");
+            for (int i = 0; i < this.jobs.size(); i++) {
+                for (WorldSanitizerService.PhaseTiming timing : this.jobs.get(i).getPhaseTimings()) {
+                    String labels = this.jobLabels.get(i) + ",phase=\"" + metricName(timing.getPhase()) + "\"";
+                    this.sample(samplesName, labels, timing.getSamples());
+                }
+            }
+        }
+
+        private void family(String name, String help) {
+            this.text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            this.text.append("# TYPE ").append(name).append(" gauge\n");
+        }
+
+        private void sample(String name, String labels, double value) {
+            this.text.append(name);
+            if (!labels.isEmpty()) {
+                this.text.append('{').append(labels).append('}');
+            }
+            this.text.append(' ');
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                this.text.append((long) value);
+            } else {
+                this.text.append(value);
+            }
+            this.text.append('\n');
+        }
+
+        private static String escape(String labelValue) {
+            return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+
+        @Override
+        public String toString() {
+            return this.text.toString();
+        }
+    }
+}
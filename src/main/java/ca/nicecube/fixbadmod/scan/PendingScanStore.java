@@ -0,0 +1,133 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Persists completed dry-scans under {@code <data>/pending/<world>-<hash>.bin} so /fixbadmod execute survives
+ * restarts. A file whose stored world name differs from the requested one is rejected.
+ *
+ * <p>Layout: magic, version, world name, world save identity, rules signature, creation time, counters,
+ * then the sorted touched and failed chunk indexes as zigzag varint deltas, followed by a CRC32 of everything
+ * before it.
+ */
+final class PendingScanStore {
+    private static final int MAGIC = 0x46424D50;
+    private static final int VERSION = 2;
+    private static final String DIRECTORY_NAME = "pending";
+    private static final String FILE_SUFFIX = ".bin";
+
+    private final Path directory;
+
+    PendingScanStore(Path dataDirectory) {
+        this.directory = dataDirectory.resolve(DIRECTORY_NAME);
+    }
+
+    void save(WorldSanitizerService.PendingScan pending) throws IOException {
+        Files.createDirectories(this.directory);
+        Path target = this.pathFor(pending.getWorldName());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (OutputStream fileOut = Files.newOutputStream(temp)) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fileOut), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(pending.getWorldName());
+            out.writeUTF(pending.getWorldSaveIdentity());
+            out.writeUTF(pending.getRulesSignature());
+            out.writeLong(pending.getCreatedAt().toEpochMilli());
+            BinaryCodec.writeVarLong(out, pending.getTotalChunks());
+            BinaryCodec.writeVarLong(out, pending.getTouchedChunks());
+            BinaryCodec.writeVarLong(out, pending.getFailedChunks());
+            BinaryCodec.writeVarLong(out, pending.getTotalMatches());
+            BinaryCodec.writeSortedChunkIndexes(out, pending.getTouchedChunkIndexes());
+            BinaryCodec.writeSortedChunkIndexes(out, pending.getFailedChunkIndexes());
+            out.flush();
+            long crc = checked.getChecksum().getValue();
+            out.writeInt((int) crc);
+            out.flush();
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the stored dry-scan for {@code worldName}, or null when none was saved.
+     */
+    WorldSanitizerService.PendingScan load(String worldName) throws IOException {
+        Path path = this.pathFor(worldName);
+        if (Files.notExists(path)) {
+            return null;
+        }
+
+        long fileSize = Files.size(path);
+        try (InputStream fileIn = Files.newInputStream(path)) {
+            CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(fileIn), new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a FixBadMod pending scan file: " + path.toAbsolutePath());
+            }
+
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported pending scan version " + version + " in " + path.toAbsolutePath());
+            }
+
+            String storedWorldName = in.readUTF();
+            if (!storedWorldName.equals(worldName)) {
+                throw new IOException(
+                    "Pending scan file " + path.toAbsolutePath() + " belongs to world '" + storedWorldName + "'"
+                );
+            }
+
+            String worldSaveIdentity = in.readUTF();
+            String rulesSignature = in.readUTF();
+            Instant createdAt = Instant.ofEpochMilli(in.readLong());
+            int totalChunks = (int) BinaryCodec.readVarLong(in);
+            int touchedChunks = (int) BinaryCodec.readVarLong(in);
+            int failedChunks = (int) BinaryCodec.readVarLong(in);
+            long totalMatches = BinaryCodec.readVarLong(in);
+            long[] touchedChunkIndexes = BinaryCodec.readChunkIndexes(in, fileSize);
+            long[] failedChunkIndexes = BinaryCodec.readChunkIndexes(in, fileSize);
+
+            long expectedCrc = checked.getChecksum().getValue();
+            if (in.readInt() != (int) expectedCrc) {
+                throw new IOException("Checksum mismatch in pending scan file " + path.toAbsolutePath());
+            }
+
+            return new WorldSanitizerService.PendingScan(
+                storedWorldName,
+                worldSaveIdentity,
+                touchedChunkIndexes,
+                failedChunkIndexes,
+                totalChunks,
+                touchedChunks,
+                failedChunks,
+                totalMatches,
+                rulesSignature,
+                createdAt
+            );
+        }
+    }
+
+    void delete(String worldName) throws IOException {
+        Files.deleteIfExists(this.pathFor(worldName));
+    }
+
+    private Path pathFor(String worldName) {
+        return this.directory.resolve(BinaryCodec.stateFileName(worldName) + FILE_SUFFIX);
+    }
+}
@@ -0,0 +1,75 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Events per second as an exponentially weighted moving average over a one-minute window, updated in five-second
+ * ticks like a Unix load average.
+ *
+ * <p>{@link #mark(long)} adds to a striped counter and only takes the lock when a tick is due. Ticks are caught up
+ * lazily by whichever call comes next, so a meter that stops receiving events still decays towards zero when read.
+ */
+final class RateMeter {
+    private static final long TICK_NANOS = 5_000_000_000L;
+    private static final double TICK_SECONDS = TICK_NANOS / 1_000_000_000.0d;
+    private static final double WINDOW_SECONDS = 60.0d;
+    private static final double ALPHA = 1.0d - Math.exp(-TICK_SECONDS / WINDOW_SECONDS);
+
+    private final LongSupplier nanoClock;
+    private final LongAdder uncounted = new LongAdder();
+    private volatile long lastTickNanos;
+    private double rate;
+    private boolean initialized;
+
+    RateMeter() {
+        this(System::nanoTime);
+    }
+
+    RateMeter(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.lastTickNanos = nanoClock.getAsLong();
+    }
+
+    void mark(long count) {
+        if (count > 0L) {
+            this.uncounted.add(count);
+        }
+        this.tickIfDue(this.nanoClock.getAsLong());
+    }
+
+    /**
+     * Smoothed events per second, or 0 until the first tick completed.
+     */
+    synchronized double rate() {
+        this.tickIfDue(this.nanoClock.getAsLong());
+        return this.rate;
+    }
+
+    private void tickIfDue(long nowNanos) {
+        if (nowNanos - this.lastTickNanos < TICK_NANOS) {
+            return;
+        }
+
+        synchronized (this) {
+            long ticks = (nowNanos - this.lastTickNanos) / TICK_NANOS;
+            if (ticks <= 0L) {
+                return;
+            }
+
+            this.lastTickNanos += ticks * TICK_NANOS;
+            double instantRate = this.uncounted.sumThenReset() / TICK_SECONDS;
+            if (!this.initialized) {
+                this.rate = instantRate;
+                this.initialized = true;
+                return;
+            }
+
+            // Pending events belong to the latest tick; the ones before it were idle. Decay those in one step.
+            if (ticks > 1L) {
+                this.rate *= Math.pow(1.0d - ALPHA, ticks - 1L);
+            }
+            this.rate += ALPHA * (instantRate - this.rate);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ca.nicecube.fixbadmod.scan;
+
+import com.hypixel.hytale.math.util.ChunkUtil;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lists the occupied chunk slots of {@code chunks/<rx>.<rz>.region.bin} files by memory-mapping their header.
+ *
+ * <p>Region files are indexed storage files: a 20 byte magic, version, blob count and segment size as big-endian
+ * ints, then one int per blob holding its first segment ({@code 0} for an empty slot). A region covers
+ * {@link #REGION_SIZE}x{@link #REGION_SIZE} chunks and slot {@code localX + localZ * REGION_SIZE}. Chunk data itself is
+ * never read or decompressed.
+ */
+final class RegionFileIndex {
+    static final int REGION_SIZE = 32;
+    private static final int SLOT_COUNT = REGION_SIZE * REGION_SIZE;
+    private static final byte[] MAGIC = "HytaleIndexedStorage".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_SIZE = MAGIC.length + 3 * Integer.BYTES;
+    private static final Pattern REGION_FILE_PATTERN = Pattern.compile("^(-?\\d+)\\.(-?\\d+)\\.region\\.bin$");
+
+    /**
+     * Region files row-major, by region z and then region x, the order the region chunk orders walk them in. Names
+     * that do not parse go last.
+     */
+    static final Comparator<Path> ROW_MAJOR = Comparator
+        .comparingInt((Path path) -> regionCoordinate(path, 2))
+        .thenComparingInt(path -> regionCoordinate(path, 1))
+        .thenComparing(path -> path.getFileName().toString());
+
+    private RegionFileIndex() {
+    }
+
+    static boolean isRegionFile(Path path) {
+        return Files.isRegularFile(path) && REGION_FILE_PATTERN.matcher(path.getFileName().toString()).matches();
+    }
+
+    private static int regionCoordinate(Path path, int group) {
+        Matcher matcher = REGION_FILE_PATTERN.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            return Integer.MAX_VALUE;
+        }
+
+        try {
+            return Integer.parseInt(matcher.group(group));
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Returns the chunk indexes stored in {@code regionFile}, in slot order.
+     */
+    static long[] readOccupiedChunks(Path regionFile) throws IOException {
+        Matcher matcher = REGION_FILE_PATTERN.matcher(regionFile.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IOException("Not a region file: " + regionFile.toAbsolutePath());
+        }
+
+        int regionX;
+        int regionZ;
+        try {
+            regionX = Integer.parseInt(matcher.group(1));
+            regionZ = Integer.parseInt(matcher.group(2));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid region coordinates in " + regionFile.toAbsolutePath(), e);
+        }
+
+        try (FileChannel channel = FileChannel.open(regionFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Region file header is truncated: " + regionFile.toAbsolutePath());
+            }
+
+            MappedByteBuffer header = channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                0L,
+                Math.min(size, HEADER_SIZE + (long) SLOT_COUNT * Integer.BYTES)
+            );
+            byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not an indexed storage file: " + regionFile.toAbsolutePath());
+            }
+
+            header.getInt(); // version
+            int blobCount = header.getInt();
+            header.getInt(); // segment size
+            if (blobCount <= 0 || blobCount > SLOT_COUNT) {
+                throw new IOException("Unexpected blob count " + blobCount + " in " + regionFile.toAbsolutePath());
+            }
+            if (header.limit() < HEADER_SIZE + blobCount * Integer.BYTES) {
+                throw new IOException("Region file slot table is truncated: " + regionFile.toAbsolutePath());
+            }
+
+            long[] occupied = new long[blobCount];
+            int count = 0;
+            for (int slot = 0; slot < blobCount; slot++) {
+                if (header.getInt(HEADER_SIZE + slot * Integer.BYTES) == 0) {
+                    continue;
+                }
+
+                int chunkX = regionX * REGION_SIZE + slot % REGION_SIZE;
+                int chunkZ = regionZ * REGION_SIZE + slot / REGION_SIZE;
+                occupied[count++] = ChunkUtil.indexChunk(chunkX, chunkZ);
+            }
+
+            return Arrays.copyOf(occupied, count);
+        }
+    }
+}
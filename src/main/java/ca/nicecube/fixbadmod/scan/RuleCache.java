@@ -0,0 +1,29 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-chunk rule lookups with one map per {@link MatchCategory}, so raw ids are the keys. Misses are cached as
+ * {@link #NO_RULE}. Only used from the world thread.
+ */
+final class RuleCache {
+    static final CompiledRule NO_RULE = new CompiledRule(RuleMode.EXACT, "", "", false);
+
+    @SuppressWarnings("unchecked")
+    private final Map<String, CompiledRule>[] byCategory = new Map[MatchCategory.count()];
+
+    CompiledRule get(MatchCategory category, String id) {
+        Map<String, CompiledRule> rules = this.byCategory[category.ordinal()];
+        return rules == null ? null : rules.get(id);
+    }
+
+    void put(MatchCategory category, String id, CompiledRule rule) {
+        Map<String, CompiledRule> rules = this.byCategory[category.ordinal()];
+        if (rules == null) {
+            rules = new HashMap<>();
+            this.byCategory[category.ordinal()] = rules;
+        }
+        rules.put(id, rule == null ? NO_RULE : rule);
+    }
+}
@@ -0,0 +1,107 @@
+package ca.nicecube.fixbadmod.scan;
+
+import ca.nicecube.fixbadmod.config.FixBadModConfig;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns config rules into {@link CompiledRule}s and fingerprints the result for saved scans and checkpoints.
+ */
+final class RuleCompiler {
+    private static final Set<String> DELETE_REPLACEMENTS = Set.of(
+        "__DELETE__",
+        "DELETE",
+        "REMOVE",
+        "EMPTY",
+        "AIR",
+        "NONE",
+        "NULL"
+    );
+
+    private final HytaleLogger logger;
+
+    RuleCompiler(HytaleLogger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Enabled rules in config order. Rules whose replacement block is unknown are logged and skipped.
+     */
+    List<CompiledRule> compile(FixBadModConfig config) {
+        List<CompiledRule> compiled = new ArrayList<>();
+        for (FixBadModConfig.Rule rule : config.getRules()) {
+            if (rule == null || !rule.isEnabled()) {
+                continue;
+            }
+
+            String match = rule.getMatch();
+            if (match == null || match.isBlank()) {
+                continue;
+            }
+
+            RuleMode mode = RuleMode.from(rule.getMode());
+            String replaceWith = rule.getReplaceWith();
+            if (isDeleteReplacement(replaceWith)) {
+                compiled.add(new CompiledRule(mode, match, BlockType.EMPTY.getId(), true));
+                continue;
+            }
+
+            BlockType replacement = BlockType.fromString(replaceWith);
+            if (replacement == null || replacement.isUnknown()) {
+                this.logger.atWarning().log(
+                    "[FixBadMod] Skipping rule '%s' because replacement '%s' is unknown",
+                    match,
+                    replaceWith
+                );
+                continue;
+            }
+
+            compiled.add(new CompiledRule(mode, match, replacement.getId(), false));
+        }
+
+        return compiled;
+    }
+
+    static String signature(List<CompiledRule> rules) {
+        StringBuilder sb = new StringBuilder();
+        for (CompiledRule rule : rules) {
+            sb.append(rule.mode)
+                .append('|')
+                .append(rule.match)
+                .append('|')
+                .append(rule.delete)
+                .append('|')
+                .append(rule.replacementId)
+                .append(';');
+        }
+
+        // Hashed so the signature stays small enough to persist next to saved dry-scans.
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static boolean isDeleteReplacement(String replaceWith) {
+        if (replaceWith == null) {
+            return true;
+        }
+
+        String normalized = replaceWith.trim();
+        if (normalized.isEmpty()) {
+            return true;
+        }
+
+        return DELETE_REPLACEMENTS.contains(normalized.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,275 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compiled first-match-wins matcher over EXACT, PREFIX and CONTAINS patterns.
+ * EXACT and PREFIX patterns share one trie, CONTAINS patterns are matched with an Aho-Corasick automaton.
+ * A lookup walks each automaton once, so it costs O(id length) regardless of how many patterns were added.
+ * Instances are immutable and safe to share between threads.
+ */
+final class RuleMatcher {
+    static final int NO_MATCH = -1;
+
+    private final Automaton trie;
+    private final Automaton contains;
+
+    private RuleMatcher(Automaton trie, Automaton contains) {
+        this.trie = trie;
+        this.contains = contains;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the smallest ordinal of all patterns matching {@code id}, or {@link #NO_MATCH}.
+     */
+    int firstMatch(String id) {
+        int best = this.matchTrie(id);
+        if (this.contains != null) {
+            best = min(best, this.matchContains(id));
+        }
+
+        return best;
+    }
+
+    private int matchTrie(String id) {
+        Automaton automaton = this.trie;
+        if (automaton == null) {
+            return NO_MATCH;
+        }
+
+        int node = 0;
+        int best = automaton.prefixOrdinal[node];
+        int length = id.length();
+        for (int i = 0; i < length; i++) {
+            node = automaton.child(node, id.charAt(i));
+            if (node < 0) {
+                return best;
+            }
+
+            best = min(best, automaton.prefixOrdinal[node]);
+        }
+
+        return min(best, automaton.exactOrdinal[node]);
+    }
+
+    private int matchContains(String id) {
+        Automaton automaton = this.contains;
+        int node = 0;
+        int best = automaton.outputOrdinal[node];
+        int length = id.length();
+        for (int i = 0; i < length; i++) {
+            char c = id.charAt(i);
+            int next = automaton.child(node, c);
+            while (next < 0 && node != 0) {
+                node = automaton.fail[node];
+                next = automaton.child(node, c);
+            }
+
+            node = next < 0 ? 0 : next;
+            best = min(best, automaton.outputOrdinal[node]);
+        }
+
+        return best;
+    }
+
+    private static int min(int a, int b) {
+        if (a == NO_MATCH) {
+            return b;
+        }
+        if (b == NO_MATCH) {
+            return a;
+        }
+
+        return Math.min(a, b);
+    }
+
+    static final class Builder {
+        private final List<BuildNode> trieNodes = new ArrayList<>();
+        private final List<BuildNode> containsNodes = new ArrayList<>();
+
+        private Builder() {
+            this.trieNodes.add(new BuildNode());
+            this.containsNodes.add(new BuildNode());
+        }
+
+        Builder addExact(String pattern, int ordinal) {
+            BuildNode node = insert(this.trieNodes, pattern);
+            node.exactOrdinal = min(node.exactOrdinal, ordinal);
+            return this;
+        }
+
+        Builder addPrefix(String pattern, int ordinal) {
+            BuildNode node = insert(this.trieNodes, pattern);
+            node.prefixOrdinal = min(node.prefixOrdinal, ordinal);
+            return this;
+        }
+
+        Builder addContains(String pattern, int ordinal) {
+            BuildNode node = insert(this.containsNodes, pattern);
+            node.prefixOrdinal = min(node.prefixOrdinal, ordinal);
+            return this;
+        }
+
+        RuleMatcher build() {
+            Automaton trie = this.trieNodes.size() > 1 || this.trieNodes.get(0).hasOrdinal()
+                ? Automaton.freeze(this.trieNodes, false)
+                : null;
+            Automaton contains = this.containsNodes.size() > 1 || this.containsNodes.get(0).hasOrdinal()
+                ? Automaton.freeze(this.containsNodes, true)
+                : null;
+            return new RuleMatcher(trie, contains);
+        }
+
+        private static BuildNode insert(List<BuildNode> nodes, String pattern) {
+            BuildNode node = nodes.get(0);
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                Integer child = node.children.get(c);
+                if (child == null) {
+                    child = nodes.size();
+                    nodes.add(new BuildNode());
+                    node.children.put(c, child);
+                }
+                node = nodes.get(child);
+            }
+
+            return node;
+        }
+    }
+
+    private static final class BuildNode {
+        private final Map<Character, Integer> children = new TreeMap<>();
+        private int prefixOrdinal = NO_MATCH;
+        private int exactOrdinal = NO_MATCH;
+
+        private boolean hasOrdinal() {
+            return this.prefixOrdinal != NO_MATCH || this.exactOrdinal != NO_MATCH;
+        }
+    }
+
+    /**
+     * Frozen automaton. Children of every node are stored as a sorted slice of {@code edgeChars}/{@code edgeTargets}.
+     */
+    private static final class Automaton {
+        private final int[] edgeStart;
+        private final char[] edgeChars;
+        private final int[] edgeTargets;
+        private final int[] prefixOrdinal;
+        private final int[] exactOrdinal;
+        private final int[] fail;
+        private final int[] outputOrdinal;
+
+        private Automaton(
+            int[] edgeStart,
+            char[] edgeChars,
+            int[] edgeTargets,
+            int[] prefixOrdinal,
+            int[] exactOrdinal,
+            int[] fail,
+            int[] outputOrdinal
+        ) {
+            this.edgeStart = edgeStart;
+            this.edgeChars = edgeChars;
+            this.edgeTargets = edgeTargets;
+            this.prefixOrdinal = prefixOrdinal;
+            this.exactOrdinal = exactOrdinal;
+            this.fail = fail;
+            this.outputOrdinal = outputOrdinal;
+        }
+
+        private int child(int node, char c) {
+            int from = this.edgeStart[node];
+            int to = this.edgeStart[node + 1] - 1;
+            while (from <= to) {
+                int mid = (from + to) >>> 1;
+                char midChar = this.edgeChars[mid];
+                if (midChar < c) {
+                    from = mid + 1;
+                } else if (midChar > c) {
+                    to = mid - 1;
+                } else {
+                    return this.edgeTargets[mid];
+                }
+            }
+
+            return -1;
+        }
+
+        private static Automaton freeze(List<BuildNode> nodes, boolean withFailureLinks) {
+            int nodeCount = nodes.size();
+            int edgeCount = 0;
+            for (BuildNode node : nodes) {
+                edgeCount += node.children.size();
+            }
+
+            int[] edgeStart = new int[nodeCount + 1];
+            char[] edgeChars = new char[edgeCount];
+            int[] edgeTargets = new int[edgeCount];
+            int[] prefixOrdinal = new int[nodeCount];
+            int[] exactOrdinal = new int[nodeCount];
+            int edge = 0;
+            for (int i = 0; i < nodeCount; i++) {
+                BuildNode node = nodes.get(i);
+                edgeStart[i] = edge;
+                for (Map.Entry<Character, Integer> child : node.children.entrySet()) {
+                    edgeChars[edge] = child.getKey();
+                    edgeTargets[edge] = child.getValue();
+                    edge += 1;
+                }
+                prefixOrdinal[i] = node.prefixOrdinal;
+                exactOrdinal[i] = node.exactOrdinal;
+            }
+            edgeStart[nodeCount] = edge;
+
+            if (!withFailureLinks) {
+                return new Automaton(edgeStart, edgeChars, edgeTargets, prefixOrdinal, exactOrdinal, null, null);
+            }
+
+            // Breadth-first so every failure target is finalized before its dependents.
+            int[] fail = new int[nodeCount];
+            int[] outputOrdinal = Arrays.copyOf(prefixOrdinal, nodeCount);
+            Automaton automaton = new Automaton(
+                edgeStart,
+                edgeChars,
+                edgeTargets,
+                prefixOrdinal,
+                exactOrdinal,
+                fail,
+                outputOrdinal
+            );
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int e = edgeStart[0]; e < edgeStart[1]; e++) {
+                fail[edgeTargets[e]] = 0;
+                queue.add(edgeTargets[e]);
+            }
+
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                outputOrdinal[node] = min(outputOrdinal[node], outputOrdinal[fail[node]]);
+                for (int e = edgeStart[node]; e < edgeStart[node + 1]; e++) {
+                    char c = edgeChars[e];
+                    int target = edgeTargets[e];
+                    int cursor = fail[node];
+                    int next = automaton.child(cursor, c);
+                    while (next < 0 && cursor != 0) {
+                        cursor = fail[cursor];
+                        next = automaton.child(cursor, c);
+                    }
+                    fail[target] = next < 0 || next == target ? 0 : next;
+                    queue.add(target);
+                }
+            }
+
+            return automaton;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ca.nicecube.fixbadmod.scan;
+
+enum RuleMode {
+    EXACT,
+    PREFIX,
+    CONTAINS;
+
+    static RuleMode from(String mode) {
+        if (mode == null) {
+            return PREFIX;
+        }
+
+        return switch (mode.trim().toLowerCase()) {
+            case "exact" -> EXACT;
+            case "contains" -> CONTAINS;
+            default -> PREFIX;
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package ca.nicecube.fixbadmod.scan;
+
+/**
+ * Timed steps of a chunk scan. The label is printed in verbose status and in the completion log.
+ */
+enum ScanPhase {
+    CHUNK_LOAD("chunk load"),
+    QUEUE_WAIT("world-thread queue"),
+    ENTITY_CHUNK("entity chunk pass"),
+    BLOCK_COMPONENTS("block component pass"),
+    BLOCKS("block pass");
+
+    private static final ScanPhase[] VALUES = values();
+
+    private final String label;
+
+    ScanPhase(String label) {
+        this.label = label;
+    }
+
+    static int count() {
+        return VALUES.length;
+    }
+
+    static ScanPhase ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    String label() {
+        return this.label;
+    }
+}
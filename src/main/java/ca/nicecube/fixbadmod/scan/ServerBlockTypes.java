@@ -0,0 +1,31 @@
+package ca.nicecube.fixbadmod.scan;
+
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+
+enum ServerBlockTypes implements BlockTypeLookup {
+    INSTANCE;
+
+    @Override
+    public Object registry() {
+        return BlockType.getAssetMap();
+    }
+
+    @Override
+    public Object asset(int blockTypeIndex) {
+        return BlockType.getAssetMap().getAsset(blockTypeIndex);
+    }
+
+    @Override
+    public String idOf(Object asset) {
+        if (!(asset instanceof BlockType blockType) || blockType.isUnknown()) {
+            return null;
+        }
+
+        return blockType.getId();
+    }
+
+    @Override
+    public String emptyBlockId() {
+        return BlockType.EMPTY.getId();
+    }
+}
@@ -0,0 +1,38 @@
+package ca.nicecube.fixbadmod.scan;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Job-wide memo of unknown keys by block-type index, so a block type whose asset is missing costs one exception and
+ * one regex pass instead of one per block. Only valid for {@link BlockRuleTable#UNKNOWN} types: a known type that
+ * fails does so because of one block's own data, and caching that would condemn every healthy block of the type.
+ * Only touched from the world thread.
+ */
+final class UnknownKeyCache {
+    final LongAdder slowPathCount = new LongAdder();
+    final LongAdder cacheHitCount = new LongAdder();
+    private final Int2ObjectOpenHashMap<String> byBlockType = new Int2ObjectOpenHashMap<>();
+
+    String byBlockType(int blockTypeIndex) {
+        return this.hit(this.byBlockType.get(blockTypeIndex));
+    }
+
+    void putBlockType(int blockTypeIndex, String unknownKey) {
+        this.byBlockType.put(blockTypeIndex, unknownKey);
+    }
+
+    /**
+     * Forgets every memoized key. The counters keep running.
+     */
+    void clear() {
+        this.byBlockType.clear();
+    }
+
+    private String hit(String unknownKey) {
+        if (unknownKey != null) {
+            this.cacheHitCount.increment();
+        }
+        return unknownKey;
+    }
+}
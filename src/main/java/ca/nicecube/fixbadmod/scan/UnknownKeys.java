@@ -0,0 +1,40 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the asset key out of the "Unknown key!" errors the server throws for blocks and components of removed mods.
+ */
+final class UnknownKeys {
+    private static final Pattern UNKNOWN_KEY_PATTERN = Pattern.compile("Unknown key!\\s*([^\\s]+)");
+
+    private UnknownKeys() {
+    }
+
+    /**
+     * Returns the first unknown key named in {@code throwable} or its causes, or an empty string.
+     */
+    static String extract(Throwable throwable) {
+        Throwable cursor = throwable;
+        while (cursor != null) {
+            String message = cursor.getMessage();
+            if (message != null) {
+                Matcher matcher = UNKNOWN_KEY_PATTERN.matcher(message);
+                if (matcher.find()) {
+                    String key = matcher.group(1);
+                    if (key != null) {
+                        key = key.trim();
+                        if (!key.isBlank()) {
+                            return key;
+                        }
+                    }
+                }
+            }
+
+            cursor = cursor.getCause();
+        }
+
+        return "";
+    }
+}
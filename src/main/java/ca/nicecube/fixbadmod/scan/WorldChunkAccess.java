@@ -0,0 +1,229 @@
+package ca.nicecube.fixbadmod.scan;
+
+import com.hypixel.hytale.component.Holder;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.RemoveReason;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+import com.hypixel.hytale.server.core.universe.world.chunk.BlockChunk;
+import com.hypixel.hytale.server.core.universe.world.chunk.BlockComponentChunk;
+import com.hypixel.hytale.server.core.universe.world.chunk.EntityChunk;
+import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
+import com.hypixel.hytale.server.core.universe.world.chunk.section.BlockSection;
+import com.hypixel.hytale.server.core.universe.world.chunk.section.palette.ISectionPalette;
+import com.hypixel.hytale.server.core.universe.world.meta.BlockState;
+import com.hypixel.hytale.server.core.universe.world.meta.state.ItemContainerBlockState;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import java.util.function.IntConsumer;
+
+/**
+ * {@link ChunkAccess} over a live {@link WorldChunk}. Only used on the chunk's world thread.
+ */
+final class WorldChunkAccess implements ChunkAccess {
+    private final WorldChunk chunk;
+
+    WorldChunkAccess(WorldChunk chunk) {
+        this.chunk = chunk;
+    }
+
+    @Override
+    public int getBlock(int x, int y, int z) {
+        return this.chunk.getBlock(x, y, z);
+    }
+
+    @Override
+    public boolean setBlock(int x, int y, int z, String blockId) {
+        return this.chunk.setBlock(x, y, z, blockId);
+    }
+
+    @Override
+    public boolean forEachPaletteEntry(int sectionIndex, IntConsumer consumer) {
+        ISectionPalette palette;
+        try {
+            BlockChunk blockChunk = this.chunk.getBlockChunk();
+            if (blockChunk == null) {
+                return false;
+            }
+
+            BlockSection section = blockChunk.getSectionAtIndex(sectionIndex);
+            if (section == null) {
+                return false;
+            }
+
+            palette = section.getChunkSection();
+        } catch (Throwable ignored) {
+            return false;
+        }
+
+        if (palette == null) {
+            return false;
+        }
+
+        try {
+            palette.forEachValue(consumer);
+        } catch (Throwable ignored) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int[] componentBlockIndexes() {
+        BlockComponentChunk blockComponentChunk = this.chunk.getBlockComponentChunk();
+        if (blockComponentChunk == null) {
+            return ChunkScanCursor.NO_BLOCKS;
+        }
+
+        Int2ObjectMap<Holder<ChunkStore>> holders = blockComponentChunk.getEntityHolders();
+        Int2ObjectMap<Ref<ChunkStore>> references = blockComponentChunk.getEntityReferences();
+        if (holders.isEmpty() && references.isEmpty()) {
+            return ChunkScanCursor.NO_BLOCKS;
+        }
+
+        int[] blockIndexes = new int[holders.size() + references.size()];
+        int count = 0;
+        for (int blockIndex : holders.keySet()) {
+            blockIndexes[count++] = blockIndex;
+        }
+        for (int blockIndex : references.keySet()) {
+            blockIndexes[count++] = blockIndex;
+        }
+        return blockIndexes;
+    }
+
+    @Override
+    public String stateBlockId(int x, int y, int z) {
+        return blockIdOf(this.chunk.getState(x, y, z));
+    }
+
+    @Override
+    public ItemSlots itemContainer(int x, int y, int z) {
+        BlockState blockState = this.chunk.getState(x, y, z);
+        if (!(blockState instanceof ItemContainerBlockState itemContainerBlockState)) {
+            return null;
+        }
+
+        ItemContainer container = itemContainerBlockState.getItemContainer();
+        return container == null ? null : new ContainerSlots(container);
+    }
+
+    @Override
+    public boolean clearBlockComponent(int x, int y, int z) {
+        BlockComponentChunk blockComponentChunk = this.chunk.getBlockComponentChunk();
+        if (blockComponentChunk == null) {
+            return false;
+        }
+
+        int blockIndex = ChunkUtil.indexBlockInColumn(x, y, z);
+        boolean changed = false;
+
+        Holder<ChunkStore> holder = blockComponentChunk.getEntityHolder(blockIndex);
+        if (holder != null) {
+            try {
+                blockComponentChunk.removeEntityHolder(blockIndex);
+                changed = true;
+            } catch (Throwable ignored) {
+                // Best effort.
+            }
+        }
+
+        Ref<ChunkStore> entityRef = blockComponentChunk.getEntityReference(blockIndex);
+        if (entityRef != null) {
+            try {
+                @SuppressWarnings("rawtypes")
+                Store store = ((Ref) entityRef).getStore();
+                @SuppressWarnings("rawtypes")
+                Ref rawRef = (Ref) entityRef;
+                store.removeEntity(rawRef, RemoveReason.REMOVE);
+            } catch (Throwable ignored) {
+                // Continue and attempt to detach from chunk map.
+            }
+
+            try {
+                blockComponentChunk.removeEntityReference(blockIndex, entityRef);
+                changed = true;
+            } catch (Throwable ignored) {
+                // Best effort.
+            }
+        }
+
+        return changed;
+    }
+
+    @Override
+    public void markNeedsSaving() {
+        this.chunk.markNeedsSaving();
+        BlockComponentChunk blockComponentChunk = this.chunk.getBlockComponentChunk();
+        if (blockComponentChunk != null) {
+            blockComponentChunk.markNeedsSaving();
+        }
+        EntityChunk entityChunk = this.chunk.getEntityChunk();
+        if (entityChunk != null) {
+            entityChunk.markNeedsSaving();
+        }
+    }
+
+    /**
+     * Block id of a block state, or an empty string when it has none or it cannot be read.
+     */
+    static String blockIdOf(BlockState blockState) {
+        if (blockState == null) {
+            return "";
+        }
+
+        try {
+            BlockType blockType = blockState.getBlockType();
+            if (blockType == null) {
+                return "";
+            }
+
+            String blockId = blockType.getId();
+            if (blockId == null || blockId.isBlank()) {
+                return "";
+            }
+
+            return blockId;
+        } catch (Throwable ignored) {
+            return "";
+        }
+    }
+
+    private static final class ContainerSlots implements ItemSlots {
+        private final ItemContainer container;
+
+        private ContainerSlots(ItemContainer container) {
+            this.container = container;
+        }
+
+        @Override
+        public int capacity() {
+            return this.container.getCapacity();
+        }
+
+        @Override
+        public String itemId(int slot) {
+            ItemStack itemStack;
+            try {
+                itemStack = this.container.getItemStack((short) slot);
+            } catch (Throwable ignored) {
+                return null;
+            }
+
+            if (itemStack == null || itemStack.isEmpty()) {
+                return null;
+            }
+
+            String itemId = itemStack.getItemId();
+            return itemId == null || itemId.isBlank() ? null : itemId;
+        }
+
+        @Override
+        public void clear(int slot) {
+            this.container.setItemStackForSlot((short) slot, ItemStack.EMPTY);
+        }
+    }
+}
@@ -7,20 +7,22 @@ import com.hypixel.hytale.component.RemoveReason;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.logger.HytaleLogger;
 import com.hypixel.hytale.math.util.ChunkUtil;
-import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.math.vector.Vector3d;
 import com.hypixel.hytale.server.core.entity.entities.BlockEntity;
-import com.hypixel.hytale.server.core.inventory.ItemStack;
-import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.chunk.BlockComponentChunk;
 import com.hypixel.hytale.server.core.universe.world.chunk.EntityChunk;
 import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
 import com.hypixel.hytale.server.core.universe.world.meta.BlockState;
-import com.hypixel.hytale.server.core.universe.world.meta.state.ItemContainerBlockState;
 import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.hypixel.hytale.server.core.universe.world.storage.GetChunkFlags;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongLists;
 import it.unimi.dsi.fastutil.longs.LongSet;
 
 import java.io.IOException;
@@ -30,19 +32,22 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
-import java.util.Collections;
 import java.util.HashSet;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 
 public class WorldSanitizerService {
@@ -51,31 +56,92 @@ public class WorldSanitizerService {
         APPLY
     }
 
-    private static final Pattern CHUNK_FILE_PATTERN = Pattern.compile("^(-?\\d+)\\.(-?\\d+)\\.region\\.bin$");
-    private static final Pattern UNKNOWN_KEY_PATTERN = Pattern.compile("Unknown key!\\s*([^\\s]+)");
     private static final String LOG_SEPARATOR = "------------------------------------------------------------";
-    private static final Set<String> DELETE_REPLACEMENTS = Set.of(
-        "__DELETE__",
-        "DELETE",
-        "REMOVE",
-        "EMPTY",
-        "AIR",
-        "NONE",
-        "NULL"
-    );
+    private static final long TICK_PROBE_INTERVAL_MILLIS = 1000L;
 
     private final HytaleLogger logger;
     private final Map<String, ScanJob> jobs = new ConcurrentHashMap<>();
     private final Map<String, PendingScan> pendingScans = new ConcurrentHashMap<>();
-
-    public WorldSanitizerService(HytaleLogger logger) {
+    private final PendingScanStore pendingScanStore;
+    private final JobCheckpointStore checkpointStore;
+    private final RuleCompiler ruleCompiler;
+    private final ChunkLoadPermits<ScanJob> chunkLoadPermits = new ChunkLoadPermits<>();
+    private final MetricsExporter metricsExporter;
+    private final Path dataDirectory;
+    private final ScheduledThreadPoolExecutor tickProbeExecutor;
+    private final Object tickProbeLock = new Object();
+    private ScheduledFuture<?> tickProbeSchedule;
+
+    public WorldSanitizerService(HytaleLogger logger, Path dataDirectory) {
         this.logger = logger;
+        this.dataDirectory = dataDirectory;
+        this.pendingScanStore = new PendingScanStore(dataDirectory);
+        this.checkpointStore = new JobCheckpointStore(dataDirectory);
+        this.ruleCompiler = new RuleCompiler(logger);
+        this.metricsExporter = new MetricsExporter(logger, dataDirectory, this::getAggregateStatus);
+        this.tickProbeExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "FixBadMod-tick-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // The thread exits while no throttled job runs and comes back with the next one.
+        this.tickProbeExecutor.setKeepAliveTime(30L, TimeUnit.SECONDS);
+        this.tickProbeExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Applies {@code metricsExportIntervalSeconds} and {@code metricsExportFormat}; call again after a config reload.
+     */
+    public void configureMetricsExport(FixBadModConfig config) {
+        this.metricsExporter.configure(
+            config.getScan().getMetricsExportIntervalSeconds(),
+            config.getScan().getMetricsExportFormat()
+        );
+    }
+
+    /**
+     * Applies {@code globalMaxInFlightChunks}; call again after a config reload. Jobs waiting for a permit are served
+     * right away when the cap was raised.
+     */
+    public void configureChunkLoadCap(FixBadModConfig config) {
+        this.chunkLoadPermits.setLimit(config.getScan().getGlobalMaxInFlightChunks());
+        this.pumpWaitingJobs();
+    }
+
+    /**
+     * Writes a last metrics file, if the export is enabled, and stops the export thread.
+     */
+    public void stopMetricsExport() {
+        this.metricsExporter.stop();
     }
 
     public StartResult startScan(World world, FixBadModConfig config) {
         return this.startInternal(world, config, JobMode.SCAN);
     }
 
+    /**
+     * Starts a dry-scan in every given world. Jobs run concurrently, one per world thread, and share the
+     * {@code globalMaxInFlightChunks} cap. Results are keyed by world name in name order.
+     */
+    public Map<String, StartResult> startScanAll(Collection<World> worlds, FixBadModConfig config) {
+        Map<String, StartResult> results = new LinkedHashMap<>();
+        for (World world : this.sortedWorlds(worlds)) {
+            results.put(world.getName(), this.startScan(world, config));
+        }
+        return results;
+    }
+
+    /**
+     * Executes the pending dry-scan of every given world that has one; see {@link #startScanAll}.
+     */
+    public Map<String, StartResult> executePendingAll(Collection<World> worlds, FixBadModConfig config) {
+        Map<String, StartResult> results = new LinkedHashMap<>();
+        for (World world : this.sortedWorlds(worlds)) {
+            results.put(world.getName(), this.executePending(world, config));
+        }
+        return results;
+    }
+
     public StartResult executePending(World world, FixBadModConfig config) {
         Objects.requireNonNull(world, "world");
         Objects.requireNonNull(config, "config");
@@ -86,7 +152,7 @@ public class WorldSanitizerService {
             return StartResult.notStarted("A job is already running in world '" + worldName + "'");
         }
 
-        PendingScan pending = this.pendingScans.get(worldName);
+        PendingScan pending = this.getPendingScan(worldName);
         if (pending == null) {
             return StartResult.notStarted(
                 "No confirmed dry-scan for world '" + worldName + "'. Run /fixbadmod scan --world=" + worldName +
@@ -94,12 +160,19 @@ public class WorldSanitizerService {
             );
         }
 
-        List<CompiledRule> compiledRules = this.compileRules(config);
+        if (!this.worldSaveIdentity(world).equals(pending.getWorldSaveIdentity())) {
+            return StartResult.notStarted(
+                "Pending dry-scan for world '" + worldName + "' was made on a different world save. " +
+                    "Re-run /fixbadmod scan --world=" + worldName + " first."
+            );
+        }
+
+        List<CompiledRule> compiledRules = this.ruleCompiler.compile(config);
         if (compiledRules.isEmpty()) {
             return StartResult.notStarted("No valid replacement rule in config. Nothing to run.");
         }
 
-        String currentSignature = this.buildRulesSignature(compiledRules);
+        String currentSignature = RuleCompiler.signature(compiledRules);
         if (!currentSignature.equals(pending.getRulesSignature())) {
             return StartResult.notStarted(
                 "Config changed since last scan in world '" + worldName + "'. Re-run /fixbadmod scan --world=" +
@@ -107,37 +180,57 @@ public class WorldSanitizerService {
             );
         }
 
-        List<Long> chunkIndexes;
-        chunkIndexes = pending.getChunkIndexes();
+        boolean includeFailed = config.getScan().isExecuteIncludeFailedChunks();
+        // Pending arrays are in index order: with INDEX order and no failed chunks the job queues the pending scan's
+        // own immutable array, otherwise it works on a reordered copy.
+        long[] chunkIndexes = pending.touchedChunkIndexes;
+        if (includeFailed && pending.failedChunkIndexes.length > 0) {
+            chunkIndexes = Arrays.copyOf(
+                pending.touchedChunkIndexes,
+                pending.touchedChunkIndexes.length + pending.failedChunkIndexes.length
+            );
+            System.arraycopy(
+                pending.failedChunkIndexes,
+                0,
+                chunkIndexes,
+                pending.touchedChunkIndexes.length,
+                pending.failedChunkIndexes.length
+            );
+        }
+
+        ChunkOrder chunkOrder = ChunkOrder.from(config.getScan().getChunkOrder());
+        if (chunkOrder != ChunkOrder.INDEX || chunkIndexes != pending.touchedChunkIndexes) {
+            if (chunkIndexes == pending.touchedChunkIndexes) {
+                chunkIndexes = chunkIndexes.clone();
+            }
+            chunkOrder.sort(chunkIndexes);
+        }
 
-        if (chunkIndexes.isEmpty()) {
+        if (chunkIndexes.length == 0) {
+            this.discardPendingScan(worldName);
             return StartResult.notStarted(
-                "Pending dry-scan for world '" + worldName + "' has an empty chunk list. " +
-                    "Re-run /fixbadmod scan --world=" + worldName + " first."
+                "Dry-scan for world '" + worldName + "' found nothing to replace" +
+                    (includeFailed ? "." : " (failed chunks excluded, see scan.executeIncludeFailedChunks).")
             );
         }
 
-        ScanJob job = new ScanJob(
-            world,
-            chunkIndexes,
-            compiledRules,
-            config.getScan().getMaxReplacementsPerChunk(),
-            config.getScan().getMatchBreakdownLimit(),
-            config.getScan().isAutoDeleteUnknownKeys(),
-            JobMode.APPLY,
-            currentSignature
-        );
+        this.discardCheckpoint(worldName);
+        ScanJob job = this.createJob(world, chunkIndexes, compiledRules, config, JobMode.APPLY, currentSignature);
         this.jobs.put(worldName, job);
+        this.ensureTickProbes(job);
         this.logger.atInfo().log(
-            "[FixBadMod] Started APPLY in world '%s' with %d chunks and %d rules",
+            "[FixBadMod] Started APPLY in world '%s' with %d chunks (touched=%d failed=%d includeFailed=%s) and %d rules",
             worldName,
-            chunkIndexes.size(),
+            chunkIndexes.length,
+            pending.touchedChunkIndexes.length,
+            pending.failedChunkIndexes.length,
+            includeFailed,
             compiledRules.size()
         );
         this.pump(job);
 
         return StartResult.started(
-            "Execute started in world '" + worldName + "' (" + chunkIndexes.size() + " chunks queued)"
+            "Execute started in world '" + worldName + "' (" + chunkIndexes.length + " chunks queued)"
         );
     }
 
@@ -150,8 +243,48 @@ public class WorldSanitizerService {
         return job.snapshot();
     }
 
+    /**
+     * Latest job status of every world that ran a job, in world name order.
+     */
+    public List<JobStatus> getAllStatuses() {
+        List<JobStatus> statuses = new ArrayList<>(this.jobs.size());
+        for (ScanJob job : this.jobs.values()) {
+            statuses.add(job.snapshot());
+        }
+        statuses.sort(Comparator.comparing(JobStatus::getWorldName));
+        return statuses;
+    }
+
+    public AggregateStatus getAggregateStatus() {
+        return new AggregateStatus(
+            this.getAllStatuses(),
+            this.chunkLoadPermits.getInFlight(),
+            this.chunkLoadPermits.getLimit()
+        );
+    }
+
     public PendingScan getPendingScan(String worldName) {
-        return this.pendingScans.get(worldName);
+        PendingScan pending = this.pendingScans.get(worldName);
+        if (pending != null) {
+            return pending;
+        }
+
+        try {
+            pending = this.pendingScanStore.load(worldName);
+        } catch (IOException e) {
+            this.logger.atWarning().withCause(e).log(
+                "[FixBadMod] Ignoring unreadable saved dry-scan for world '%s'",
+                worldName
+            );
+            return null;
+        }
+
+        if (pending == null) {
+            return null;
+        }
+
+        PendingScan existing = this.pendingScans.putIfAbsent(worldName, pending);
+        return existing != null ? existing : pending;
     }
 
     public boolean cancel(String worldName, String reason) {
@@ -161,6 +294,7 @@ public class WorldSanitizerService {
         }
 
         job.cancel(reason);
+        this.pump(job);
         return true;
     }
 
@@ -168,11 +302,14 @@ public class WorldSanitizerService {
         for (ScanJob job : this.jobs.values()) {
             if (job.isRunning()) {
                 job.cancel(reason);
+                // Written synchronously: the server may stop before in-flight chunks drain.
+                this.writeCheckpoint(job, this.captureCheckpoint(job));
+                this.pump(job);
             }
         }
     }
 
-    private StartResult startInternal(World world, FixBadModConfig config, JobMode mode) {
+    public StartResult resume(World world, FixBadModConfig config) {
         Objects.requireNonNull(world, "world");
         Objects.requireNonNull(config, "config");
 
@@ -182,132 +319,469 @@ public class WorldSanitizerService {
             return StartResult.notStarted("A job is already running in world '" + worldName + "'");
         }
 
-        List<CompiledRule> compiledRules = this.compileRules(config);
-        if (compiledRules.isEmpty()) {
-            return StartResult.notStarted("No valid replacement rule in config. Nothing to run.");
-        }
-
-        List<Long> chunkIndexes;
+        JobCheckpointStore.Checkpoint checkpoint;
         try {
-            chunkIndexes = this.discoverChunkIndexes(world);
+            checkpoint = this.checkpointStore.load(worldName);
         } catch (IOException e) {
             this.logger.atWarning().withCause(e).log(
-                "[FixBadMod] Failed to enumerate chunk files for world '%s'",
+                "[FixBadMod] Failed to read checkpoint for world '%s'",
                 worldName
             );
-            return StartResult.notStarted("Failed to read chunk list for world '" + worldName + "'. Check logs.");
+            return StartResult.notStarted("Checkpoint for world '" + worldName + "' is unreadable. Check logs.");
         }
 
-        if (chunkIndexes.isEmpty()) {
-            return StartResult.notStarted("No chunk files found in world '" + worldName + "'");
+        if (checkpoint == null) {
+            return StartResult.notStarted("No checkpoint to resume in world '" + worldName + "'");
         }
 
-        String rulesSignature = this.buildRulesSignature(compiledRules);
-        if (mode == JobMode.SCAN) {
-            this.pendingScans.remove(worldName);
+        if (!this.worldSaveIdentity(world).equals(checkpoint.worldSaveIdentity)) {
+            return StartResult.notStarted(
+                "Checkpoint for world '" + worldName + "' was made on a different world save. Start a new job."
+            );
         }
 
-        ScanJob job = new ScanJob(
-            world,
-            chunkIndexes,
-            compiledRules,
-            config.getScan().getMaxReplacementsPerChunk(),
-            config.getScan().getMatchBreakdownLimit(),
-            config.getScan().isAutoDeleteUnknownKeys(),
-            mode,
-            rulesSignature
+        List<CompiledRule> compiledRules = this.ruleCompiler.compile(config);
+        if (compiledRules.isEmpty()) {
+            return StartResult.notStarted("No valid replacement rule in config. Nothing to run.");
+        }
+
+        String currentSignature = RuleCompiler.signature(compiledRules);
+        if (!currentSignature.equals(checkpoint.rulesSignature)) {
+            return StartResult.notStarted(
+                "Config changed since the checkpoint in world '" + worldName + "' was written. Start a new job."
+            );
+        }
+
+        if (checkpoint.mode == JobMode.SCAN) {
+            this.discardPendingScan(worldName);
+        }
+
+        long[] remaining = checkpoint.remainingChunkIndexes;
+        ScanJob job = this.createJob(world, remaining, compiledRules, config, checkpoint.mode, currentSignature);
+        job.restore(checkpoint);
+        this.jobs.put(worldName, job);
+        this.ensureTickProbes(job);
+        this.logger.atInfo().log(
+            "[FixBadMod] Resumed %s in world '%s' from checkpoint of %s: processed=%d remaining=%d",
+            checkpoint.mode,
+            worldName,
+            checkpoint.savedAt,
+            checkpoint.processedChunks,
+            remaining.length
         );
+        this.pump(job);
+
+        return StartResult.started(
+            "Resumed " + checkpoint.mode + " in world '" + worldName + "' (" + checkpoint.processedChunks +
+                " chunks already done, " + remaining.length + " remaining)"
+        );
+    }
+
+    private StartResult startInternal(World world, FixBadModConfig config, JobMode mode) {
+        Objects.requireNonNull(world, "world");
+        Objects.requireNonNull(config, "config");
+
+        String worldName = world.getName();
+        ScanJob existing = this.jobs.get(worldName);
+        if (existing != null && existing.isRunning()) {
+            return StartResult.notStarted("A job is already running in world '" + worldName + "'");
+        }
+
+        List<CompiledRule> compiledRules = this.ruleCompiler.compile(config);
+        if (compiledRules.isEmpty()) {
+            return StartResult.notStarted("No valid replacement rule in config. Nothing to run.");
+        }
+
+        String rulesSignature = RuleCompiler.signature(compiledRules);
+        if (mode == JobMode.SCAN) {
+            this.discardPendingScan(worldName);
+        }
+
+        this.discardCheckpoint(worldName);
+        ScanJob job = this.createJob(world, new long[0], compiledRules, config, mode, rulesSignature);
+        job.beginDiscovery();
         this.jobs.put(worldName, job);
+        this.ensureTickProbes(job);
         this.logger.atInfo().log(
-            "[FixBadMod] Started %s in world '%s' with %d chunks and %d rules",
+            "[FixBadMod] Started %s in world '%s' with %d rules. Discovering chunks in the background.",
             mode,
             worldName,
-            chunkIndexes.size(),
             compiledRules.size()
         );
-        this.pump(job);
+        CompletableFuture.runAsync(() -> this.discoverChunks(job));
 
         if (mode == JobMode.SCAN) {
-            return StartResult.started(
-                "Dry-scan started in world '" + worldName + "' (" + chunkIndexes.size() + " chunks queued)"
-            );
+            return StartResult.started("Dry-scan started in world '" + worldName + "' (discovering chunks)");
         }
 
-        return StartResult.started(
-            "Execute started in world '" + worldName + "' (" + chunkIndexes.size() + " chunks queued)"
+        return StartResult.started("Execute started in world '" + worldName + "' (discovering chunks)");
+    }
+
+    private ScanJob createJob(
+        World world,
+        long[] chunkIndexes,
+        List<CompiledRule> compiledRules,
+        FixBadModConfig config,
+        JobMode mode,
+        String rulesSignature
+    ) {
+        ScanJob job = new ScanJob(
+            world,
+            chunkIndexes,
+            compiledRules,
+            config.getScan().getMaxReplacementsPerChunk(),
+            config.getScan().getMatchBreakdownLimit(),
+            config.getScan().getMaxInFlightChunks(),
+            config.getScan().isAutoDeleteUnknownKeys(),
+            mode,
+            rulesSignature,
+            this.worldSaveIdentity(world),
+            config.getScan().getCheckpointIntervalSeconds(),
+            config.getScan().getWorldThreadBudgetMillis(),
+            config.getScan().getWorldThreadLagBudgetMillis(),
+            config.getScan().isReleaseLoadedChunks(),
+            config.getScan().getReleasePlayerRadiusChunks(),
+            ChunkOrder.from(config.getScan().getChunkOrder())
         );
+        job.checkpointGeneration = this.checkpointStore.claim(world.getName());
+        if (config.getScan().isChunkReport()) {
+            job.reportWriter = new ChunkReportWriter(
+                this.logger,
+                this.dataDirectory,
+                world.getName(),
+                mode,
+                config.getScan().getChunkReportMaxFileMegabytes(),
+                () -> this.pump(job)
+            );
+        }
+        return job;
     }
 
     private void pump(ScanJob job) {
-        long chunkIndex;
+        long firstSequence;
+        long[] dispatched = null;
+        int dispatchedCount = 0;
+        boolean finishNow = false;
         synchronized (job.lock) {
             if (!job.running) {
+                this.chunkLoadPermits.forget(job);
                 return;
             }
 
-            if (job.processing) {
-                return;
+            firstSequence = job.nextDispatchSequence;
+            int wanted = 0;
+            // A backlogged report writer pumps the job again once it caught up.
+            boolean reportBacklogged = job.reportWriter != null && job.reportWriter.isBacklogged();
+            if (!job.cancelRequested && !reportBacklogged) {
+                long queued = job.queue.size() - job.nextDispatchSequence;
+                wanted = (int) Math.min(job.throttle.limit() - job.inFlight, queued);
+            }
+
+            // The permit pool is a leaf lock, so taking it under the job lock cannot deadlock.
+            int granted = this.chunkLoadPermits.acquire(job, wanted);
+            if (granted > 0) {
+                dispatched = new long[granted];
+                while (dispatchedCount < granted) {
+                    dispatched[dispatchedCount++] = job.queue.get(job.nextDispatchSequence);
+                    job.inFlight += 1;
+                    job.nextDispatchSequence += 1;
+                }
             }
 
-            Long next = job.queue.pollFirst();
-            if (next == null) {
-                this.finish(job);
+            boolean queueDrained = job.queue.isDrained(job.nextDispatchSequence);
+            if (job.inFlight == 0 && (job.cancelRequested || queueDrained)) {
+                finishNow = true;
+            }
+        }
+
+        if (finishNow) {
+            this.finish(job);
+            return;
+        }
+
+        for (int i = 0; i < dispatchedCount; i++) {
+            this.dispatchChunk(job, firstSequence + i, dispatched[i]);
+        }
+    }
+
+    /**
+     * Starts the once-a-second world-thread probe if {@code job} is throttled. Call after the job is in
+     * {@link #jobs}; the probe stops itself once no throttled job is running.
+     */
+    private void ensureTickProbes(ScanJob job) {
+        if (!job.throttle.isEnabled()) {
+            return;
+        }
+
+        synchronized (this.tickProbeLock) {
+            if (this.tickProbeSchedule == null) {
+                this.tickProbeSchedule = this.tickProbeExecutor.scheduleAtFixedRate(
+                    this::probeWorldThreads,
+                    TICK_PROBE_INTERVAL_MILLIS,
+                    TICK_PROBE_INTERVAL_MILLIS,
+                    TimeUnit.MILLISECONDS
+                );
+            }
+        }
+    }
+
+    private void probeWorldThreads() {
+        List<ScanJob> throttled = new ArrayList<>();
+        synchronized (this.tickProbeLock) {
+            for (ScanJob job : this.jobs.values()) {
+                if (job.isRunning() && job.throttle.isEnabled()) {
+                    throttled.add(job);
+                }
+            }
+
+            if (throttled.isEmpty()) {
+                this.tickProbeSchedule.cancel(false);
+                this.tickProbeSchedule = null;
                 return;
             }
+        }
 
-            job.processing = true;
-            chunkIndex = next;
+        for (ScanJob job : throttled) {
+            try {
+                job.throttle.probe(job.world, (previous, current) -> this.onThrottleChanged(job, previous, current));
+            } catch (RuntimeException probeError) {
+                this.logger.atWarning().withCause(probeError).log(
+                    "[FixBadMod] Could not probe the world thread of '%s'",
+                    job.world.getName()
+                );
+            }
         }
+    }
+
+    private void onThrottleChanged(ScanJob job, int previous, int current) {
+        if (current == 0) {
+            this.logger.atInfo().log(
+                "[FixBadMod] Paused dispatch in world '%s': world thread lagging %d ms (budget %d ms)",
+                job.world.getName(),
+                TimeUnit.NANOSECONDS.toMillis(job.throttle.lastLagNanos()),
+                TimeUnit.NANOSECONDS.toMillis(job.throttle.lagBudgetNanos())
+            );
+        } else if (previous == 0) {
+            this.logger.atInfo().log("[FixBadMod] Resumed dispatch in world '%s'", job.world.getName());
+        }
+
+        // Lower limits take effect as in-flight chunks complete; raised ones need a pump to use the new room.
+        if (current > previous) {
+            this.pump(job);
+        }
+    }
 
-        job.world.getChunkStore()
+    private void dispatchChunk(ScanJob job, long sequence, long chunkIndex) {
+        ChunkStore chunkStore = job.world.getChunkStore();
+        // Chunks already resident (players nearby, spawn) are left to the server's own unload logic. This is only a
+        // first filter: releaseChunk checks again on the world thread before unloading.
+        boolean alreadyResident = chunkStore.getChunkReference(chunkIndex) != null;
+        long requestedAtNanos = System.nanoTime();
+        chunkStore
             .getChunkReferenceAsync(chunkIndex, GetChunkFlags.NO_GENERATE)
             .whenComplete((chunkRef, loadError) -> {
+                job.recordPhase(ScanPhase.CHUNK_LOAD, System.nanoTime() - requestedAtNanos);
                 if (loadError != null) {
-                    this.onChunkComplete(job, chunkIndex, ChunkScanResult.failed(loadError));
+                    this.onChunkComplete(job, sequence, chunkIndex, ChunkScanResult.failed(loadError));
                     return;
                 }
 
                 if (chunkRef == null) {
-                    this.onChunkComplete(job, chunkIndex, ChunkScanResult.missing());
+                    this.onChunkComplete(job, sequence, chunkIndex, ChunkScanResult.missing());
                     return;
                 }
 
-                job.world.execute(() -> {
-                    try {
-                        ChunkScanResult result = this.scanChunk(job, chunkIndex);
-                        this.onChunkComplete(job, chunkIndex, result);
-                    } catch (Throwable scanError) {
-                        this.onChunkComplete(job, chunkIndex, ChunkScanResult.failed(scanError));
-                    }
-                });
+                boolean ownedByJob = job.releaseLoadedChunks && !alreadyResident;
+                if (ownedByJob) {
+                    job.residentOwnedChunks.incrementAndGet();
+                }
+                this.enqueueScanTask(job, new ChunkScanTask(sequence, chunkIndex, ownedByJob));
             });
     }
 
-    private void onChunkComplete(ScanJob job, long chunkIndex, ChunkScanResult result) {
+    private void enqueueScanTask(ScanJob job, ChunkScanTask task) {
+        boolean scheduleDrain;
         synchronized (job.lock) {
-            job.processing = false;
-            job.processedChunks += 1;
-            job.totalMatches += result.matches;
+            job.scanTasks.addLast(task);
+            job.scanQueueDepth = job.scanTasks.size();
+            scheduleDrain = !job.drainScheduled;
+            job.drainScheduled = true;
+        }
 
-            if (result.failed) {
-                job.failedChunks += 1;
-                this.logger.atWarning().withCause(result.error).log(
-                    "[FixBadMod] Failed scanning chunk %d,%d in world '%s'",
-                    ChunkUtil.xOfChunkIndex(chunkIndex),
-                    ChunkUtil.zOfChunkIndex(chunkIndex),
-                    job.world.getName()
-                );
-            } else if (result.touched) {
-                job.touchedChunks += 1;
+        if (scheduleDrain) {
+            job.world.execute(() -> this.drainScanTasks(job));
+        }
+    }
+
+    /**
+     * World-thread task that scans loaded chunks until {@code worldThreadBudgetMillis} is spent, then re-submits
+     * itself so ticks and other world tasks run before the next slice. Unfinished chunks resume from their cursor.
+     */
+    private void drainScanTasks(ScanJob job) {
+        long deadlineNanos = job.worldThreadBudgetNanos > 0L
+            ? System.nanoTime() + job.worldThreadBudgetNanos
+            : Long.MAX_VALUE;
+        while (true) {
+            ChunkScanTask task;
+            synchronized (job.lock) {
+                task = job.scanTasks.peekFirst();
+                if (task == null) {
+                    job.drainScheduled = false;
+                    return;
+                }
+            }
+
+            boolean done;
+            try {
+                done = this.runScanSlice(job, task, deadlineNanos);
+            } catch (Throwable scanError) {
+                task.result = ChunkScanResult.failed(scanError);
+                done = true;
+            }
+
+            if (done) {
+                synchronized (job.lock) {
+                    job.scanTasks.pollFirst();
+                    job.scanQueueDepth = job.scanTasks.size();
+                }
+                if (task.ownedByJob) {
+                    this.releaseChunk(job, task);
+                }
+                this.onChunkComplete(job, task.sequence, task.chunkIndex, task.result);
+            }
+
+            if (System.nanoTime() >= deadlineNanos) {
+                break;
             }
+        }
 
-            if (job.cancelRequested) {
-                this.finish(job);
+        synchronized (job.lock) {
+            if (job.scanTasks.isEmpty()) {
+                job.drainScheduled = false;
                 return;
             }
         }
 
+        job.world.execute(() -> this.drainScanTasks(job));
+    }
+
+    /**
+     * Unloads a chunk the job loaded itself, deciding on the world thread right before the unload. Chunks the job
+     * modified are left to the server, which writes them out through its own save and unload path; a raw unload does
+     * not save them, and the plugin has no save call to make first. Chunks within {@code releasePlayerRadiusChunks}
+     * of a player are left loaded too, since a player may have walked up to them while the job held them. Chunks
+     * left loaded move from the resident to the retained count.
+     */
+    private void releaseChunk(ScanJob job, ChunkScanTask task) {
+        boolean retained = true;
+        try {
+            if (task.chunkModified[0] || this.isNearPlayer(job, task.chunkIndex)) {
+                return;
+            }
+
+            ChunkStore chunkStore = job.world.getChunkStore();
+            Ref<ChunkStore> chunkRef = chunkStore.getChunkReference(task.chunkIndex);
+            if (chunkRef != null && chunkRef.isValid()) {
+                chunkStore.getStore().removeEntity(chunkRef, RemoveReason.UNLOAD);
+            }
+            retained = false;
+        } catch (Throwable error) {
+            this.logger.atWarning().withCause(error).log(
+                "[FixBadMod] Could not release chunk %d in world '%s'. Leaving it to the server.",
+                task.chunkIndex,
+                job.world.getName()
+            );
+        } finally {
+            job.residentOwnedChunks.decrementAndGet();
+            if (retained) {
+                job.retainedOwnedChunks.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean isNearPlayer(ScanJob job, long chunkIndex) {
+        int chunkX = ChunkUtil.xOfChunkIndex(chunkIndex);
+        int chunkZ = ChunkUtil.zOfChunkIndex(chunkIndex);
+        for (PlayerRef playerRef : job.world.getPlayerRefs()) {
+            Vector3d position = playerRef.getTransform().getPosition();
+            int playerChunkX = Math.floorDiv((int) Math.floor(position.getX()), ChunkUtil.SIZE);
+            int playerChunkZ = Math.floorDiv((int) Math.floor(position.getZ()), ChunkUtil.SIZE);
+            if (Math.abs(playerChunkX - chunkX) <= job.releasePlayerRadiusChunks &&
+                Math.abs(playerChunkZ - chunkZ) <= job.releasePlayerRadiusChunks) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void onChunkComplete(ScanJob job, long sequence, long chunkIndex, ChunkScanResult result) {
+        JobCheckpointStore.Checkpoint checkpoint = null;
+        this.chunkLoadPermits.release(job, 1);
+        synchronized (job.lock) {
+            job.inFlight -= 1;
+            job.completedOutOfOrder.put(sequence, new CompletedChunk(chunkIndex, result));
+
+            // Chunks may complete in any order; account them in dispatch order so counters and logs
+            // always describe a contiguous prefix of the queue.
+            CompletedChunk completed;
+            while ((completed = job.completedOutOfOrder.remove(job.nextAccountSequence)) != null) {
+                job.nextAccountSequence += 1;
+                this.accountChunk(job, completed.chunkIndex, completed.result);
+            }
+
+            if (job.isCheckpointDue()) {
+                checkpoint = this.captureCheckpoint(job);
+            }
+        }
+
+        if (checkpoint != null) {
+            JobCheckpointStore.Checkpoint dueCheckpoint = checkpoint;
+            CompletableFuture.runAsync(() -> this.writeCheckpoint(job, dueCheckpoint));
+        }
+
         this.pump(job);
+        this.pumpWaitingJobs();
+    }
+
+    /**
+     * Hands free global permits to waiting jobs in round-robin order. Every pump either takes a permit or drops the
+     * job from the wait queue, so the loop ends.
+     */
+    private void pumpWaitingJobs() {
+        ScanJob next;
+        while ((next = this.chunkLoadPermits.nextWaiting()) != null) {
+            this.pump(next);
+        }
+    }
+
+    private void accountChunk(ScanJob job, long chunkIndex, ChunkScanResult result) {
+        job.processedChunks.increment();
+        job.lastProgressAtMillis = System.currentTimeMillis();
+        job.totalMatches.add(result.matches);
+        job.chunkRate.mark(1L);
+        if (job.reportWriter != null) {
+            if (result.failed) {
+                job.reportWriter.failed(chunkIndex, result.error);
+            } else if (result.touched) {
+                job.reportWriter.touched(chunkIndex, result.report);
+            }
+        }
+        job.matchRate.mark(result.matches);
+
+        if (result.failed) {
+            job.failedChunks.increment();
+            job.failedChunkIndexes.add(chunkIndex);
+            this.logger.atWarning().withCause(result.error).log(
+                "[FixBadMod] Failed scanning chunk %d,%d in world '%s'",
+                ChunkUtil.xOfChunkIndex(chunkIndex),
+                ChunkUtil.zOfChunkIndex(chunkIndex),
+                job.world.getName()
+            );
+        } else if (result.touched) {
+            job.touchedChunks.increment();
+            job.touchedChunkIndexes.add(chunkIndex);
+        }
     }
 
     private void finish(ScanJob job) {
@@ -317,12 +791,20 @@ public class WorldSanitizerService {
             }
 
             job.running = false;
-            job.processing = false;
             job.finishedAt = Instant.now();
         }
+        this.chunkLoadPermits.forget(job);
+        if (job.reportWriter != null) {
+            job.reportWriter.close();
+        }
 
         JobStatus snapshot = job.snapshot();
         if (snapshot.isCancelled()) {
+            JobCheckpointStore.Checkpoint checkpoint = this.captureCheckpoint(job);
+            CompletableFuture.runAsync(() -> this.writeCheckpoint(job, checkpoint));
+            String resumeHint = checkpoint != null && job.checkpointIntervalMillis > 0L
+                ? "/fixbadmod resume --world=" + snapshot.getWorldName()
+                : "not available, start a new job";
             this.logger.atInfo().log(
                 "[FixBadMod] %s%n" +
                     "[FixBadMod] JOB CANCELLED%n" +
@@ -330,6 +812,7 @@ public class WorldSanitizerService {
                     "[FixBadMod] Mode    : %s%n" +
                     "[FixBadMod] Progress: %d/%d%n" +
                     "[FixBadMod] Matches : %d%n" +
+                    "[FixBadMod] Resume  : %s%n" +
                     "[FixBadMod] %s",
                 LOG_SEPARATOR,
                 snapshot.getWorldName(),
@@ -337,15 +820,21 @@ public class WorldSanitizerService {
                 snapshot.getProcessedChunks(),
                 snapshot.getTotalChunks(),
                 snapshot.getTotalMatches(),
+                resumeHint,
                 LOG_SEPARATOR
             );
+            this.logPhaseTimings(snapshot);
             return;
         }
 
+        this.discardCheckpoint(job);
+
         if (snapshot.getMode() == JobMode.SCAN) {
             PendingScan pending = new PendingScan(
                 snapshot.getWorldName(),
-                job.getChunkIndexes(),
+                this.worldSaveIdentity(job.world),
+                job.touchedChunkIndexes.toLongArray(),
+                job.failedChunkIndexes.toLongArray(),
                 snapshot.getTotalChunks(),
                 snapshot.getTouchedChunks(),
                 snapshot.getFailedChunks(),
@@ -354,6 +843,7 @@ public class WorldSanitizerService {
                 Instant.now()
             );
             this.pendingScans.put(snapshot.getWorldName(), pending);
+            this.persistPendingScan(pending);
             this.logger.atInfo().log(
                 "[FixBadMod] %s%n" +
                     "[FixBadMod] DRY-SCAN COMPLETED%n" +
@@ -376,7 +866,7 @@ public class WorldSanitizerService {
                 snapshot.getWorldName(),
                 LOG_SEPARATOR
             );
-            String matchSummary = this.buildMatchSummary(job.matchBreakdown, job.matchBreakdownLimit);
+            String matchSummary = MatchBreakdown.summarize(job.matchBreakdownSnapshot(), job.matchBreakdownLimit);
             if (!matchSummary.isBlank()) {
                 this.logger.atInfo().log(
                     "[FixBadMod] SCAN top matches for world '%s': %s",
@@ -384,8 +874,9 @@ public class WorldSanitizerService {
                     matchSummary
                 );
             }
+            this.logPhaseTimings(snapshot);
         } else {
-            this.pendingScans.remove(snapshot.getWorldName());
+            this.discardPendingScan(snapshot.getWorldName());
             this.logger.atInfo().log(
                 "[FixBadMod] %s%n" +
                     "[FixBadMod] APPLY COMPLETED%n" +
@@ -406,7 +897,7 @@ public class WorldSanitizerService {
                 snapshot.getElapsedSeconds(),
                 LOG_SEPARATOR
             );
-            String matchSummary = this.buildMatchSummary(job.matchBreakdown, job.matchBreakdownLimit);
+            String matchSummary = MatchBreakdown.summarize(job.matchBreakdownSnapshot(), job.matchBreakdownLimit);
             if (!matchSummary.isBlank()) {
                 this.logger.atInfo().log(
                     "[FixBadMod] APPLY top replacements for world '%s': %s",
@@ -414,297 +905,226 @@ public class WorldSanitizerService {
                     matchSummary
                 );
             }
+            this.logPhaseTimings(snapshot);
         }
     }
 
-    private ChunkScanResult scanChunk(ScanJob job, long chunkIndex) {
-        WorldChunk chunk = job.world.getChunkStore().getChunkComponent(chunkIndex, WorldChunk.getComponentType());
-        if (chunk == null) {
-            return ChunkScanResult.missing();
-        }
-
-        Map<String, CompiledRule> replacementCache = new HashMap<>();
-        boolean[] chunkModified = new boolean[] {false};
-
-        int matches = this.scanEntityChunkBlockEntities(job, chunk, replacementCache, chunkModified);
-        int maxReplacements = job.maxReplacementsPerChunk;
-        if (maxReplacements > 0 && matches >= maxReplacements) {
-            if (job.mode == JobMode.APPLY && chunkModified[0]) {
-                chunk.markNeedsSaving();
-                BlockComponentChunk blockComponentChunk = chunk.getBlockComponentChunk();
-                if (blockComponentChunk != null) {
-                    blockComponentChunk.markNeedsSaving();
-                }
-                EntityChunk entityChunk = chunk.getEntityChunk();
-                if (entityChunk != null) {
-                    entityChunk.markNeedsSaving();
-                }
+    private void logPhaseTimings(JobStatus snapshot) {
+        StringBuilder timings = new StringBuilder();
+        for (PhaseTiming timing : snapshot.getPhaseTimings()) {
+            if (timing.getSamples() > 0L) {
+                timings.append(System.lineSeparator()).append("[FixBadMod]   ").append(timing.format());
             }
-            return ChunkScanResult.touched(matches);
         }
-
-        matches += this.scanBlockComponentEntities(job, chunk, replacementCache, chunkModified);
-        maxReplacements = job.maxReplacementsPerChunk;
-        if (maxReplacements > 0 && matches >= maxReplacements) {
-            if (job.mode == JobMode.APPLY && chunkModified[0]) {
-                chunk.markNeedsSaving();
-                BlockComponentChunk blockComponentChunk = chunk.getBlockComponentChunk();
-                if (blockComponentChunk != null) {
-                    blockComponentChunk.markNeedsSaving();
-                }
-                EntityChunk entityChunk = chunk.getEntityChunk();
-                if (entityChunk != null) {
-                    entityChunk.markNeedsSaving();
-                }
-            }
-            return ChunkScanResult.touched(matches);
+        if (timings.length() == 0) {
+            return;
         }
 
-        for (int localX = 0; localX < ChunkUtil.SIZE; localX++) {
-            for (int localZ = 0; localZ < ChunkUtil.SIZE; localZ++) {
-                for (int y = ChunkUtil.MIN_Y; y < ChunkUtil.MIN_Y + ChunkUtil.HEIGHT; y++) {
-                    int blockTypeIndex = chunk.getBlock(localX, y, localZ);
-                    if (blockTypeIndex <= BlockType.EMPTY_ID) {
-                        continue;
-                    }
-
-                    matches += this.scanItemContainerState(job, chunk, localX, y, localZ, replacementCache, chunkModified);
-                    if (maxReplacements > 0 && matches >= maxReplacements) {
-                        if (job.mode == JobMode.APPLY && chunkModified[0]) {
-                            chunk.markNeedsSaving();
-                            BlockComponentChunk blockComponentChunk = chunk.getBlockComponentChunk();
-                            if (blockComponentChunk != null) {
-                                blockComponentChunk.markNeedsSaving();
-                            }
-                            EntityChunk entityChunk = chunk.getEntityChunk();
-                            if (entityChunk != null) {
-                                entityChunk.markNeedsSaving();
-                            }
-                        }
-                        return ChunkScanResult.touched(matches);
-                    }
-
-                    BlockType blockType = BlockType.getAssetMap().getAsset(blockTypeIndex);
-                    String blockId = "";
-                    boolean unknownBlock = blockType == null || blockType.isUnknown();
-                    if (blockType != null && !unknownBlock) {
-                        String resolvedId = blockType.getId();
-                        if (resolvedId != null) {
-                            blockId = resolvedId;
-                        }
-                    }
-                    if (blockId.isBlank()) {
-                        blockId = this.resolveBlockIdFromState(chunk, localX, y, localZ);
-                    }
-                    if (blockId == null || blockId.isBlank()) {
-                        if (!unknownBlock) {
-                            continue;
-                        }
-
-                        // Fallback for unresolved unknown palette entries: remove the block to stabilize chunk loading.
-                        if (job.mode == JobMode.APPLY) {
-                            boolean componentRemoved = this.clearBlockComponentAt(chunk, localX, y, localZ);
-                            boolean blockChanged = chunk.setBlock(localX, y, localZ, BlockType.EMPTY.getId());
-                            if (componentRemoved || blockChanged) {
-                                chunkModified[0] = true;
-                            }
-                        }
-                        this.recordMatch(job, "unknown-block");
-                        matches += 1;
-
-                        if (maxReplacements > 0 && matches >= maxReplacements) {
-                            if (job.mode == JobMode.APPLY && chunkModified[0]) {
-                                chunk.markNeedsSaving();
-                                BlockComponentChunk blockComponentChunk = chunk.getBlockComponentChunk();
-                                if (blockComponentChunk != null) {
-                                    blockComponentChunk.markNeedsSaving();
-                                }
-                                EntityChunk entityChunk = chunk.getEntityChunk();
-                                if (entityChunk != null) {
-                                    entityChunk.markNeedsSaving();
-                                }
-                            }
-                            return ChunkScanResult.touched(matches);
-                        }
-                        continue;
-                    }
+        this.logger.atInfo().log(
+            "[FixBadMod] %s phase timings for world '%s':%s",
+            snapshot.getMode(),
+            snapshot.getWorldName(),
+            timings
+        );
+    }
 
-                    CompiledRule replacementRule = replacementCache.computeIfAbsent(
-                        blockId,
-                        id -> this.resolveRule(id, job.rules)
-                    );
-                    if (replacementRule == null ||
-                        (!replacementRule.isDelete() && replacementRule.getReplacementId().equals(blockId))) {
-                        continue;
-                    }
+    /**
+     * Returns null while chunk discovery is still running: the remaining queue is not known yet.
+     */
+    private JobCheckpointStore.Checkpoint captureCheckpoint(ScanJob job) {
+        synchronized (job.lock) {
+            long[] remainingChunkIndexes = job.queue.remainingFrom((int) job.nextAccountSequence);
+            if (remainingChunkIndexes == null) {
+                return null;
+            }
 
-                    if (job.mode == JobMode.APPLY) {
-                        boolean componentRemoved = this.clearBlockComponentAt(chunk, localX, y, localZ);
-                        boolean blockChanged;
-                        if (replacementRule.isDelete()) {
-                            blockChanged = chunk.setBlock(localX, y, localZ, BlockType.EMPTY.getId());
-                        } else {
-                            blockChanged = chunk.setBlock(localX, y, localZ, replacementRule.getReplacementId());
-                        }
+            job.lastCheckpointAtMillis = System.currentTimeMillis();
+            return new JobCheckpointStore.Checkpoint(
+                job.mode,
+                job.world.getName(),
+                job.worldSaveIdentity,
+                job.rulesSignature,
+                Instant.now(),
+                job.processedChunks.intValue(),
+                job.touchedChunks.intValue(),
+                job.failedChunks.intValue(),
+                job.totalMatches.sum(),
+                job.matchBreakdownSnapshot(),
+                job.touchedChunkIndexes.toLongArray(),
+                job.failedChunkIndexes.toLongArray(),
+                remainingChunkIndexes
+            );
+        }
+    }
 
-                        if (componentRemoved || blockChanged) {
-                            chunkModified[0] = true;
-                        }
-                    }
-                    this.recordMatch(job, "block:" + blockId);
-                    matches += 1;
-
-                    if (maxReplacements > 0 && matches >= maxReplacements) {
-                        if (job.mode == JobMode.APPLY && chunkModified[0]) {
-                            chunk.markNeedsSaving();
-                            BlockComponentChunk blockComponentChunk = chunk.getBlockComponentChunk();
-                            if (blockComponentChunk != null) {
-                                blockComponentChunk.markNeedsSaving();
-                            }
-                            EntityChunk entityChunk = chunk.getEntityChunk();
-                            if (entityChunk != null) {
-                                entityChunk.markNeedsSaving();
-                            }
-                        }
-                        return ChunkScanResult.touched(matches);
-                    }
-                }
-            }
+    private void writeCheckpoint(ScanJob job, JobCheckpointStore.Checkpoint checkpoint) {
+        if (checkpoint == null || job.checkpointIntervalMillis <= 0L) {
+            return;
         }
 
-        if (job.mode == JobMode.APPLY && chunkModified[0]) {
-            chunk.markNeedsSaving();
-            BlockComponentChunk blockComponentChunk = chunk.getBlockComponentChunk();
-            if (blockComponentChunk != null) {
-                blockComponentChunk.markNeedsSaving();
-            }
-            EntityChunk entityChunk = chunk.getEntityChunk();
-            if (entityChunk != null) {
-                entityChunk.markNeedsSaving();
+        synchronized (job.checkpointLock) {
+            // Async writes may land out of order; never replace a checkpoint with an older one. The store drops
+            // writes of a job whose world was taken over by a later job or whose checkpoint was discarded.
+            if (checkpoint.processedChunks < job.lastWrittenCheckpointChunks) {
+                return;
             }
-        }
 
-        if (matches > 0) {
-            return ChunkScanResult.touched(matches);
+            try {
+                if (this.checkpointStore.save(checkpoint, job.checkpointGeneration)) {
+                    job.lastWrittenCheckpointChunks = checkpoint.processedChunks;
+                }
+            } catch (IOException e) {
+                this.logger.atWarning().withCause(e).log(
+                    "[FixBadMod] Failed to write checkpoint for world '%s'",
+                    checkpoint.worldName
+                );
+            }
         }
-
-        return ChunkScanResult.missing();
     }
 
-    private int scanItemContainerState(
-        ScanJob job,
-        WorldChunk chunk,
-        int localX,
-        int y,
-        int localZ,
-        Map<String, CompiledRule> replacementCache,
-        boolean[] chunkModified
-    ) {
-        if (chunk.getBlockComponentEntity(localX, y, localZ) == null &&
-            chunk.getBlockComponentHolder(localX, y, localZ) == null) {
-            return 0;
+    private void discardCheckpoint(String worldName) {
+        try {
+            this.checkpointStore.delete(worldName);
+        } catch (IOException e) {
+            this.logger.atWarning().withCause(e).log(
+                "[FixBadMod] Failed to delete checkpoint for world '%s'",
+                worldName
+            );
         }
+    }
 
-        BlockState blockState;
+    /**
+     * Deletes the checkpoint of a finished job, unless a later job already took over its world.
+     */
+    private void discardCheckpoint(ScanJob job) {
         try {
-            blockState = chunk.getState(localX, y, localZ);
-        } catch (Throwable error) {
-            String unknownKey = this.extractUnknownKey(error);
-            if (unknownKey.isBlank()) {
-                return 0;
-            }
-
-            String cacheKey = "state-error|" + unknownKey;
-            CompiledRule replacementRule = replacementCache.computeIfAbsent(
-                cacheKey,
-                id -> this.resolveRuleOrAutoDeleteUnknown(unknownKey, job, job.rules)
+            this.checkpointStore.delete(job.world.getName(), job.checkpointGeneration);
+        } catch (IOException e) {
+            this.logger.atWarning().withCause(e).log(
+                "[FixBadMod] Failed to delete checkpoint for world '%s'",
+                job.world.getName()
             );
+        }
+    }
 
-            if (job.mode == JobMode.APPLY) {
-                boolean componentRemoved = this.clearBlockComponentAt(chunk, localX, y, localZ);
-                boolean blockChanged;
-                if (replacementRule.isDelete()) {
-                    blockChanged = chunk.setBlock(localX, y, localZ, BlockType.EMPTY.getId());
-                } else {
-                    blockChanged = chunk.setBlock(localX, y, localZ, replacementRule.getReplacementId());
-                }
-                if (componentRemoved || blockChanged) {
-                    chunkModified[0] = true;
+    private void persistPendingScan(PendingScan pending) {
+        CompletableFuture.runAsync(() -> {
+            try {
+                this.pendingScanStore.save(pending);
+                if (this.pendingScans.get(pending.getWorldName()) != pending) {
+                    // Superseded (executed or rescanned) while we were writing.
+                    this.pendingScanStore.delete(pending.getWorldName());
                 }
+            } catch (IOException e) {
+                this.logger.atWarning().withCause(e).log(
+                    "[FixBadMod] Failed to save dry-scan for world '%s'. Execute will need a new scan after restart.",
+                    pending.getWorldName()
+                );
             }
+        });
+    }
 
-            this.recordMatch(job, "state-error:" + unknownKey);
-            return 1;
+    private void discardPendingScan(String worldName) {
+        this.pendingScans.remove(worldName);
+        try {
+            this.pendingScanStore.delete(worldName);
+        } catch (IOException e) {
+            this.logger.atWarning().withCause(e).log(
+                "[FixBadMod] Failed to delete saved dry-scan for world '%s'",
+                worldName
+            );
         }
+    }
 
-        if (blockState == null) {
-            return 0;
-        }
+    private List<World> sortedWorlds(Collection<World> worlds) {
+        List<World> sorted = new ArrayList<>(worlds);
+        sorted.sort(Comparator.comparing(World::getName));
+        return sorted;
+    }
 
-        if (!(blockState instanceof ItemContainerBlockState itemContainerBlockState)) {
-            return 0;
-        }
+    private String worldSaveIdentity(World world) {
+        return world.getSavePath().toAbsolutePath().normalize().toString();
+    }
 
-        ItemContainer container = itemContainerBlockState.getItemContainer();
-        if (container == null) {
-            return 0;
+    /**
+     * Runs one slice of {@code task} on the world thread and returns true once the chunk is fully scanned.
+     * The chunk is re-fetched on every slice because it may have been unloaded between two world-thread tasks.
+     */
+    private boolean runScanSlice(ScanJob job, ChunkScanTask task, long deadlineNanos) {
+        WorldChunk chunk = job.world.getChunkStore().getChunkComponent(task.chunkIndex, WorldChunk.getComponentType());
+        if (chunk == null) {
+            task.result = task.started
+                ? ChunkScanResult.failed(new IllegalStateException("Chunk was unloaded while it was being scanned"))
+                : ChunkScanResult.missing();
+            return true;
         }
 
-        int matches = 0;
-        boolean removeContainerBlock = false;
-        short capacity = container.getCapacity();
-        for (short slot = 0; slot < capacity; slot++) {
-            ItemStack itemStack;
-            try {
-                itemStack = container.getItemStack(slot);
-            } catch (Throwable ignored) {
-                continue;
+        WorldChunkAccess access = new WorldChunkAccess(chunk);
+        if (!task.started) {
+            task.started = true;
+            task.report = job.reportWriter != null ? new ChunkReport(job.scanner.matchBreakdown) : null;
+            long startedAtNanos = System.nanoTime();
+            job.recordPhase(ScanPhase.QUEUE_WAIT, startedAtNanos - task.enqueuedAtNanos);
+            if (job.scanner.revalidate()) {
+                this.logger.atInfo().log(
+                    "[FixBadMod] Block asset map changed during %s in world '%s'. Rebuilt block rule table.",
+                    job.mode,
+                    job.world.getName()
+                );
             }
 
-            if (itemStack == null || itemStack.isEmpty()) {
-                continue;
+            long phaseStartNanos = System.nanoTime();
+            task.matches += this.scanEntityChunkBlockEntities(job, chunk, task);
+            long phaseEndNanos = System.nanoTime();
+            job.recordPhase(ScanPhase.ENTITY_CHUNK, phaseEndNanos - phaseStartNanos);
+            if (job.scanner.isLimitReached(task)) {
+                return this.completeScanTask(job, task, access);
             }
 
-            String itemId = itemStack.getItemId();
-            if (itemId == null || itemId.isBlank()) {
-                continue;
+            phaseStartNanos = phaseEndNanos;
+            task.matches += this.scanBlockComponentEntities(job, chunk, task);
+            phaseEndNanos = System.nanoTime();
+            job.recordPhase(ScanPhase.BLOCK_COMPONENTS, phaseEndNanos - phaseStartNanos);
+            if (job.scanner.isLimitReached(task)) {
+                return this.completeScanTask(job, task, access);
             }
 
-            String cacheKey = "item|" + itemId;
-            CompiledRule replacementRule = replacementCache.computeIfAbsent(
-                cacheKey,
-                id -> this.resolveRule(itemId, job.rules)
-            );
-            if (replacementRule == null) {
-                continue;
+            // Taken after the component pass above so removed components are not visited again.
+            task.componentBlocks = job.scanner.componentBlocks(access);
+            if (System.nanoTime() >= deadlineNanos) {
+                return false;
             }
+        }
 
-            this.recordMatch(job, "item:" + itemId);
-            matches += 1;
-            if (replacementRule.isDelete()) {
-                removeContainerBlock = true;
-            } else if (job.mode == JobMode.APPLY) {
-                container.setItemStackForSlot(slot, ItemStack.EMPTY);
-                chunkModified[0] = true;
-            }
+        // Summed over slices, so the block pass of a chunk is one sample however often the budget split it.
+        long sliceStartNanos = System.nanoTime();
+        long voxelsBefore = task.voxels;
+        boolean done = job.scanner.scanBlocks(access, task, deadlineNanos);
+        task.blockPassNanos += System.nanoTime() - sliceStartNanos;
+        job.voxelRate.mark(task.voxels - voxelsBefore);
+        if (!done) {
+            return false;
         }
 
-        if (job.mode == JobMode.APPLY && removeContainerBlock) {
-            boolean componentRemoved = this.clearBlockComponentAt(chunk, localX, y, localZ);
-            boolean blockChanged = chunk.setBlock(localX, y, localZ, BlockType.EMPTY.getId());
-            if (componentRemoved || blockChanged) {
-                chunkModified[0] = true;
-            }
+        job.recordPhase(ScanPhase.BLOCKS, task.blockPassNanos);
+        return this.completeScanTask(job, task, access);
+    }
+
+    private boolean completeScanTask(ScanJob job, ChunkScanTask task, ChunkAccess chunk) {
+        if (job.mode == JobMode.APPLY && task.chunkModified[0]) {
+            chunk.markNeedsSaving();
         }
 
-        return matches;
+        task.result = task.matches > 0
+            ? ChunkScanResult.touched(task.matches, task.report)
+            : ChunkScanResult.missing();
+        return true;
     }
 
     private int scanBlockComponentEntities(
         ScanJob job,
         WorldChunk chunk,
-        Map<String, CompiledRule> replacementCache,
-        boolean[] chunkModified
+        ChunkScanCursor cursor
     ) {
         BlockComponentChunk blockComponentChunk = chunk.getBlockComponentChunk();
         if (blockComponentChunk == null) {
@@ -717,7 +1137,7 @@ public class WorldSanitizerService {
         int matches = 0;
 
         for (Int2ObjectMap.Entry<Holder<ChunkStore>> entry : blockComponentChunk.getEntityHolders().int2ObjectEntrySet()) {
-            CompiledRule replacementRule = this.resolveRuleFromHolder(job, entry.getValue(), replacementCache, job.rules);
+            CompiledRule replacementRule = this.resolveRuleFromHolder(job, entry.getValue(), cursor);
             if (replacementRule == null) {
                 continue;
             }
@@ -730,7 +1150,7 @@ public class WorldSanitizerService {
 
         for (Int2ObjectMap.Entry<Ref<ChunkStore>> entry : blockComponentChunk.getEntityReferences().int2ObjectEntrySet()) {
             Ref<ChunkStore> entityRef = entry.getValue();
-            CompiledRule replacementRule = this.resolveRuleFromReference(job, entityRef, replacementCache, job.rules);
+            CompiledRule replacementRule = this.resolveRuleFromReference(job, entityRef, cursor);
             if (replacementRule == null) {
                 continue;
             }
@@ -746,7 +1166,7 @@ public class WorldSanitizerService {
             for (Integer key : holdersToRemove) {
                 try {
                     blockComponentChunk.removeEntityHolder(key.intValue());
-                    chunkModified[0] = true;
+                    cursor.chunkModified[0] = true;
                 } catch (Throwable ignored) {
                     // Best effort: if a malformed holder cannot be removed, continue with the rest.
                 }
@@ -768,7 +1188,7 @@ public class WorldSanitizerService {
 
                 try {
                     blockComponentChunk.removeEntityReference(key, entityRef);
-                    chunkModified[0] = true;
+                    cursor.chunkModified[0] = true;
                 } catch (Throwable ignored) {
                     // Best effort: continue.
                 }
@@ -781,8 +1201,7 @@ public class WorldSanitizerService {
     private int scanEntityChunkBlockEntities(
         ScanJob job,
         WorldChunk chunk,
-        Map<String, CompiledRule> replacementCache,
-        boolean[] chunkModified
+        ChunkScanCursor cursor
     ) {
         EntityChunk entityChunk = chunk.getEntityChunk();
         if (entityChunk == null) {
@@ -799,8 +1218,7 @@ public class WorldSanitizerService {
                 job,
                 entityRef,
                 entityStore,
-                replacementCache,
-                job.rules
+                cursor
             );
             if (replacementRule == null) {
                 continue;
@@ -813,7 +1231,7 @@ public class WorldSanitizerService {
         }
 
         for (Holder<EntityStore> holder : entityChunk.getEntityHolders()) {
-            CompiledRule replacementRule = this.resolveRuleFromEntityHolder(job, holder, replacementCache, job.rules);
+            CompiledRule replacementRule = this.resolveRuleFromEntityHolder(job, holder, cursor);
             if (replacementRule == null) {
                 continue;
             }
@@ -834,7 +1252,7 @@ public class WorldSanitizerService {
 
                 try {
                     entityChunk.removeEntityReference(entityRef);
-                    chunkModified[0] = true;
+                    cursor.chunkModified[0] = true;
                 } catch (Throwable ignored) {
                     // Best effort.
                 }
@@ -851,7 +1269,7 @@ public class WorldSanitizerService {
                             }
 
                             if (holdersToRemoveSet.contains(holder)) {
-                                chunkModified[0] = true;
+                                cursor.chunkModified[0] = true;
                                 continue;
                             }
 
@@ -870,39 +1288,42 @@ public class WorldSanitizerService {
     private CompiledRule resolveRuleFromHolder(
         ScanJob job,
         Holder<ChunkStore> holder,
-        Map<String, CompiledRule> replacementCache,
-        List<CompiledRule> rules
+        ChunkScanCursor cursor
     ) {
         if (holder == null) {
             return null;
         }
 
+        // Unknown keys come from one instance's data, not from its archetype: decode every holder.
         try {
             BlockState blockState = BlockState.getBlockState(holder);
-            String blockId = this.extractBlockIdFromState(blockState);
+            String blockId = WorldChunkAccess.blockIdOf(blockState);
             if (blockId.isBlank()) {
                 return null;
             }
 
-            String cacheKey = "holder|" + blockId;
-            CompiledRule rule = replacementCache.computeIfAbsent(cacheKey, id -> this.resolveRule(blockId, rules));
+            CompiledRule rule = job.scanner.cachedRule(
+                cursor.replacementCache,
+                MatchCategory.BLOCK_COMPONENT_HOLDER,
+                blockId
+            );
             if (rule != null) {
-                this.recordMatch(job, "blockcomponent-holder:" + blockId);
+                job.scanner.recordMatch(cursor, MatchCategory.BLOCK_COMPONENT_HOLDER, blockId);
             }
             return rule;
         } catch (Throwable error) {
-            String unknownKey = this.extractUnknownKey(error);
+            String unknownKey = job.scanner.extractUnknownKey(error);
             if (unknownKey.isBlank()) {
                 return null;
             }
 
-            String cacheKey = "holder-unknown|" + unknownKey;
-            CompiledRule rule = replacementCache.computeIfAbsent(
-                cacheKey,
-                id -> this.resolveRuleOrAutoDeleteUnknown(unknownKey, job, rules)
+            CompiledRule rule = job.scanner.cachedUnknownKeyRule(
+                cursor.replacementCache,
+                MatchCategory.BLOCK_COMPONENT_HOLDER_UNKNOWN,
+                unknownKey
             );
             if (rule != null) {
-                this.recordMatch(job, "blockcomponent-holder-unknown:" + unknownKey);
+                job.scanner.recordMatch(cursor, MatchCategory.BLOCK_COMPONENT_HOLDER_UNKNOWN, unknownKey);
             }
             return rule;
         }
@@ -912,8 +1333,7 @@ public class WorldSanitizerService {
         ScanJob job,
         Ref<EntityStore> entityRef,
         Store<EntityStore> entityStore,
-        Map<String, CompiledRule> replacementCache,
-        List<CompiledRule> rules
+        ChunkScanCursor cursor
     ) {
         if (entityRef == null) {
             return null;
@@ -930,25 +1350,24 @@ public class WorldSanitizerService {
                 return null;
             }
 
-            String cacheKey = "entity-ref|" + blockId;
-            CompiledRule rule = replacementCache.computeIfAbsent(cacheKey, id -> this.resolveRule(blockId, rules));
+            CompiledRule rule = job.scanner.cachedRule(cursor.replacementCache, MatchCategory.ENTITY_REF, blockId);
             if (rule != null) {
-                this.recordMatch(job, "entity-ref:" + blockId);
+                job.scanner.recordMatch(cursor, MatchCategory.ENTITY_REF, blockId);
             }
             return rule;
         } catch (Throwable error) {
-            String unknownKey = this.extractUnknownKey(error);
+            String unknownKey = job.scanner.extractUnknownKey(error);
             if (unknownKey.isBlank()) {
                 return null;
             }
 
-            String cacheKey = "entity-ref-unknown|" + unknownKey;
-            CompiledRule rule = replacementCache.computeIfAbsent(
-                cacheKey,
-                id -> this.resolveRuleOrAutoDeleteUnknown(unknownKey, job, rules)
+            CompiledRule rule = job.scanner.cachedUnknownKeyRule(
+                cursor.replacementCache,
+                MatchCategory.ENTITY_REF_UNKNOWN,
+                unknownKey
             );
             if (rule != null) {
-                this.recordMatch(job, "entity-ref-unknown:" + unknownKey);
+                job.scanner.recordMatch(cursor, MatchCategory.ENTITY_REF_UNKNOWN, unknownKey);
             }
             return rule;
         }
@@ -957,13 +1376,13 @@ public class WorldSanitizerService {
     private CompiledRule resolveRuleFromEntityHolder(
         ScanJob job,
         Holder<EntityStore> holder,
-        Map<String, CompiledRule> replacementCache,
-        List<CompiledRule> rules
+        ChunkScanCursor cursor
     ) {
         if (holder == null) {
             return null;
         }
 
+        // Unknown keys come from one instance's data, not from its archetype: decode every holder.
         try {
             BlockEntity blockEntity = holder.getComponent(BlockEntity.getComponentType());
             if (blockEntity == null) {
@@ -975,25 +1394,28 @@ public class WorldSanitizerService {
                 return null;
             }
 
-            String cacheKey = "entity-holder|" + blockId;
-            CompiledRule rule = replacementCache.computeIfAbsent(cacheKey, id -> this.resolveRule(blockId, rules));
+            CompiledRule rule = job.scanner.cachedRule(
+                cursor.replacementCache,
+                MatchCategory.ENTITY_HOLDER,
+                blockId
+            );
             if (rule != null) {
-                this.recordMatch(job, "entity-holder:" + blockId);
+                job.scanner.recordMatch(cursor, MatchCategory.ENTITY_HOLDER, blockId);
             }
             return rule;
         } catch (Throwable error) {
-            String unknownKey = this.extractUnknownKey(error);
+            String unknownKey = job.scanner.extractUnknownKey(error);
             if (unknownKey.isBlank()) {
                 return null;
             }
 
-            String cacheKey = "entity-holder-unknown|" + unknownKey;
-            CompiledRule rule = replacementCache.computeIfAbsent(
-                cacheKey,
-                id -> this.resolveRuleOrAutoDeleteUnknown(unknownKey, job, rules)
+            CompiledRule rule = job.scanner.cachedUnknownKeyRule(
+                cursor.replacementCache,
+                MatchCategory.ENTITY_HOLDER_UNKNOWN,
+                unknownKey
             );
             if (rule != null) {
-                this.recordMatch(job, "entity-holder-unknown:" + unknownKey);
+                job.scanner.recordMatch(cursor, MatchCategory.ENTITY_HOLDER_UNKNOWN, unknownKey);
             }
             return rule;
         }
@@ -1002,8 +1424,7 @@ public class WorldSanitizerService {
     private CompiledRule resolveRuleFromReference(
         ScanJob job,
         Ref<ChunkStore> entityRef,
-        Map<String, CompiledRule> replacementCache,
-        List<CompiledRule> rules
+        ChunkScanCursor cursor
     ) {
         if (entityRef == null) {
             return null;
@@ -1011,342 +1432,244 @@ public class WorldSanitizerService {
 
         try {
             BlockState blockState = BlockState.getBlockState(entityRef, entityRef.getStore());
-            String blockId = this.extractBlockIdFromState(blockState);
+            String blockId = WorldChunkAccess.blockIdOf(blockState);
             if (blockId.isBlank()) {
                 return null;
             }
 
-            String cacheKey = "ref|" + blockId;
-            CompiledRule rule = replacementCache.computeIfAbsent(cacheKey, id -> this.resolveRule(blockId, rules));
+            CompiledRule rule = job.scanner.cachedRule(
+                cursor.replacementCache,
+                MatchCategory.BLOCK_COMPONENT_REF,
+                blockId
+            );
             if (rule != null) {
-                this.recordMatch(job, "blockcomponent-ref:" + blockId);
+                job.scanner.recordMatch(cursor, MatchCategory.BLOCK_COMPONENT_REF, blockId);
             }
             return rule;
         } catch (Throwable error) {
-            String unknownKey = this.extractUnknownKey(error);
+            String unknownKey = job.scanner.extractUnknownKey(error);
             if (unknownKey.isBlank()) {
                 return null;
             }
 
-            String cacheKey = "ref-unknown|" + unknownKey;
-            CompiledRule rule = replacementCache.computeIfAbsent(
-                cacheKey,
-                id -> this.resolveRuleOrAutoDeleteUnknown(unknownKey, job, rules)
+            CompiledRule rule = job.scanner.cachedUnknownKeyRule(
+                cursor.replacementCache,
+                MatchCategory.BLOCK_COMPONENT_REF_UNKNOWN,
+                unknownKey
             );
             if (rule != null) {
-                this.recordMatch(job, "blockcomponent-ref-unknown:" + unknownKey);
+                job.scanner.recordMatch(cursor, MatchCategory.BLOCK_COMPONENT_REF_UNKNOWN, unknownKey);
             }
             return rule;
         }
     }
 
-    private CompiledRule resolveRuleOrAutoDeleteUnknown(String unknownKey, ScanJob job, List<CompiledRule> rules) {
-        CompiledRule configuredRule = this.resolveRule(unknownKey, rules);
-        if (configuredRule != null) {
-            return configuredRule;
-        }
-
-        if (!job.autoDeleteUnknownKeys) {
-            return null;
-        }
-
-        return this.autoDeleteRule(unknownKey);
-    }
-
-    private CompiledRule autoDeleteRule(String unknownKey) {
-        return new CompiledRule(RuleMode.EXACT, unknownKey, BlockType.EMPTY.getId(), true);
-    }
-
-    private String extractBlockIdFromState(BlockState blockState) {
-        if (blockState == null) {
-            return "";
-        }
-
+    /**
+     * Background discovery. Loaded chunk indexes are queued first, then every region file header is read in parallel
+     * and its chunks are appended as soon as that file and all files before it are parsed, so the job starts loading
+     * chunks right away. Files are taken in {@link RegionFileIndex#ROW_MAJOR} order, which keeps the queue the same
+     * from run to run.
+     */
+    private void discoverChunks(ScanJob job) {
+        World world = job.world;
         try {
-            BlockType blockType = blockState.getBlockType();
-            if (blockType == null) {
-                return "";
-            }
-
-            String blockId = blockType.getId();
-            if (blockId == null || blockId.isBlank()) {
-                return "";
+            try {
+                LongSet indexes = world.getChunkStore().getChunkIndexes();
+                if (indexes != null) {
+                    this.appendDiscoveredChunks(job, indexes.toLongArray());
+                }
+            } catch (Throwable error) {
+                this.logger.atWarning().withCause(error).log(
+                    "[FixBadMod] Could not fetch chunk indexes from ChunkStore for world '%s'. Continuing with file scan.",
+                    world.getName()
+                );
             }
 
-            return blockId;
-        } catch (Throwable ignored) {
-            return "";
-        }
-    }
+            Path chunksPath = world.getSavePath().resolve("chunks");
+            if (Files.exists(chunksPath)) {
+                List<Path> regionFiles;
+                try (Stream<Path> stream = Files.list(chunksPath)) {
+                    regionFiles = stream.filter(RegionFileIndex::isRegionFile).sorted(RegionFileIndex.ROW_MAJOR).toList();
+                }
 
-    private String resolveBlockIdFromState(WorldChunk chunk, int localX, int y, int localZ) {
-        BlockState blockState;
-        try {
-            blockState = chunk.getState(localX, y, localZ);
-        } catch (Throwable error) {
-            String unknownKey = this.extractUnknownKey(error);
-            if (!unknownKey.isBlank()) {
-                return unknownKey;
+                regionFiles.parallelStream()
+                    .map(path -> this.readRegionChunks(job, path))
+                    .forEachOrdered(chunkIndexes -> this.appendDiscoveredChunks(job, chunkIndexes));
             }
-            return "";
+        } catch (Throwable e) {
+            this.logger.atWarning().withCause(e).log(
+                "[FixBadMod] Failed to enumerate chunk files for world '%s'. Scanning the chunks found so far.",
+                world.getName()
+            );
         }
 
-        return this.extractBlockIdFromState(blockState);
+        int discovered = job.completeDiscovery();
+        this.logger.atInfo().log(
+            "[FixBadMod] Chunk discovery finished in world '%s': %d chunks",
+            world.getName(),
+            discovered
+        );
+        this.pump(job);
     }
 
-    private String extractUnknownKey(Throwable throwable) {
-        Throwable cursor = throwable;
-        while (cursor != null) {
-            String message = cursor.getMessage();
-            if (message != null) {
-                Matcher matcher = UNKNOWN_KEY_PATTERN.matcher(message);
-                if (matcher.find()) {
-                    String key = matcher.group(1);
-                    if (key != null) {
-                        key = key.trim();
-                        if (!key.isBlank()) {
-                            return key;
-                        }
-                    }
-                }
-            }
-
-            cursor = cursor.getCause();
+    private long[] readRegionChunks(ScanJob job, Path path) {
+        if (!job.isDiscovering()) {
+            return new long[0];
         }
 
-        return "";
-    }
-
-    private boolean clearBlockComponentAt(WorldChunk chunk, int localX, int y, int localZ) {
-        BlockComponentChunk blockComponentChunk = chunk.getBlockComponentChunk();
-        if (blockComponentChunk == null) {
-            return false;
+        try {
+            return RegionFileIndex.readOccupiedChunks(path);
+        } catch (IOException | RuntimeException e) {
+            this.logger.atWarning().withCause(e).log(
+                "[FixBadMod] Could not read region header %s in world '%s'. Skipping file.",
+                path.getFileName(),
+                job.world.getName()
+            );
+            return new long[0];
         }
+    }
 
-        int blockIndex = ChunkUtil.indexBlockInColumn(localX, y, localZ);
-        boolean changed = false;
-
-        Holder<ChunkStore> holder = blockComponentChunk.getEntityHolder(blockIndex);
-        if (holder != null) {
-            try {
-                blockComponentChunk.removeEntityHolder(blockIndex);
-                changed = true;
-            } catch (Throwable ignored) {
-                // Best effort.
-            }
+    private void appendDiscoveredChunks(ScanJob job, long[] chunkIndexes) {
+        if (chunkIndexes.length == 0) {
+            return;
         }
 
-        Ref<ChunkStore> entityRef = blockComponentChunk.getEntityReference(blockIndex);
-        if (entityRef != null) {
-            try {
-                @SuppressWarnings("rawtypes")
-                Store store = ((Ref) entityRef).getStore();
-                @SuppressWarnings("rawtypes")
-                Ref rawRef = (Ref) entityRef;
-                store.removeEntity(rawRef, RemoveReason.REMOVE);
-            } catch (Throwable ignored) {
-                // Continue and attempt to detach from chunk map.
-            }
-
-            try {
-                blockComponentChunk.removeEntityReference(blockIndex, entityRef);
-                changed = true;
-            } catch (Throwable ignored) {
-                // Best effort.
-            }
+        job.chunkOrder.sort(chunkIndexes);
+        if (job.appendDiscovered(chunkIndexes)) {
+            this.pump(job);
         }
-
-        return changed;
     }
 
-    private List<Long> discoverChunkIndexes(World world) throws IOException {
-        Set<Long> mergedIndexes = new TreeSet<>();
+    public static final class StartResult {
+        private final boolean started;
+        private final String message;
 
-        try {
-            LongSet indexes = world.getChunkStore().getChunkIndexes();
-            if (indexes != null) {
-                for (long index : indexes) {
-                    mergedIndexes.add(index);
-                }
-            }
-        } catch (Throwable error) {
-            this.logger.atWarning().withCause(error).log(
-                "[FixBadMod] Could not fetch chunk indexes from ChunkStore for world '%s'. Continuing with file scan.",
-                world.getName()
-            );
+        private StartResult(boolean started, String message) {
+            this.started = started;
+            this.message = message;
         }
 
-        Path chunksPath = world.getSavePath().resolve("chunks");
-        if (!Files.exists(chunksPath)) {
-            if (mergedIndexes.isEmpty()) {
-                return List.of();
-            }
-
-            return new ArrayList<>(mergedIndexes);
+        public static StartResult started(String message) {
+            return new StartResult(true, message);
         }
 
-        try (Stream<Path> stream = Files.list(chunksPath)) {
-            stream.filter(Files::isRegularFile)
-                .forEach(path -> {
-                    Matcher matcher = CHUNK_FILE_PATTERN.matcher(path.getFileName().toString());
-                    if (!matcher.matches()) {
-                        return;
-                    }
-
-                    int chunkX;
-                    int chunkZ;
-                    try {
-                        chunkX = Integer.parseInt(matcher.group(1));
-                        chunkZ = Integer.parseInt(matcher.group(2));
-                    } catch (NumberFormatException e) {
-                        return;
-                    }
+        public static StartResult notStarted(String message) {
+            return new StartResult(false, message);
+        }
 
-                    mergedIndexes.add(ChunkUtil.indexChunk(chunkX, chunkZ));
-                });
+        public boolean isStarted() {
+            return this.started;
         }
 
-        List<Long> result = new ArrayList<>(mergedIndexes);
-        result.sort(Comparator.naturalOrder());
-        return result;
+        public String getMessage() {
+            return this.message;
+        }
     }
 
-    private List<CompiledRule> compileRules(FixBadModConfig config) {
-        List<CompiledRule> compiled = new ArrayList<>();
-        for (FixBadModConfig.Rule rule : config.getRules()) {
-            if (rule == null || !rule.isEnabled()) {
-                continue;
-            }
-
-            String match = rule.getMatch();
-            if (match == null || match.isBlank()) {
-                continue;
-            }
-
-            RuleMode mode = RuleMode.from(rule.getMode());
-            String replaceWith = rule.getReplaceWith();
-            if (this.isDeleteReplacement(replaceWith)) {
-                compiled.add(new CompiledRule(mode, match, BlockType.EMPTY.getId(), true));
-                continue;
-            }
-
-            BlockType replacement = BlockType.fromString(replaceWith);
-            if (replacement == null || replacement.isUnknown()) {
-                this.logger.atWarning().log(
-                    "[FixBadMod] Skipping rule '%s' because replacement '%s' is unknown",
-                    match,
-                    replaceWith
-                );
-                continue;
+    /**
+     * Totals over the latest job of every world, plus the shared chunk-load cap.
+     */
+    public static final class AggregateStatus {
+        private final List<JobStatus> jobs;
+        private final int runningJobs;
+        private final boolean totalEstimated;
+        private final long totalChunks;
+        private final long processedChunks;
+        private final long touchedChunks;
+        private final long failedChunks;
+        private final long totalMatches;
+        private final int chunkLoadsInFlight;
+        private final int globalMaxInFlightChunks;
+
+        private AggregateStatus(List<JobStatus> jobs, int chunkLoadsInFlight, int globalMaxInFlightChunks) {
+            int runningJobs = 0;
+            boolean totalEstimated = false;
+            long totalChunks = 0L;
+            long processedChunks = 0L;
+            long touchedChunks = 0L;
+            long failedChunks = 0L;
+            long totalMatches = 0L;
+            for (JobStatus job : jobs) {
+                if (job.isRunning()) {
+                    runningJobs += 1;
+                }
+                totalEstimated |= job.isTotalEstimated();
+                totalChunks += job.getTotalChunks();
+                processedChunks += job.getProcessedChunks();
+                touchedChunks += job.getTouchedChunks();
+                failedChunks += job.getFailedChunks();
+                totalMatches += job.getTotalMatches();
             }
 
-            compiled.add(new CompiledRule(mode, match, replacement.getId(), false));
+            this.jobs = List.copyOf(jobs);
+            this.runningJobs = runningJobs;
+            this.totalEstimated = totalEstimated;
+            this.totalChunks = totalChunks;
+            this.processedChunks = processedChunks;
+            this.touchedChunks = touchedChunks;
+            this.failedChunks = failedChunks;
+            this.totalMatches = totalMatches;
+            this.chunkLoadsInFlight = chunkLoadsInFlight;
+            this.globalMaxInFlightChunks = globalMaxInFlightChunks;
         }
 
-        return compiled;
-    }
-
-    private String buildRulesSignature(List<CompiledRule> rules) {
-        StringBuilder sb = new StringBuilder();
-        for (CompiledRule rule : rules) {
-            sb.append(rule.mode)
-                .append('|')
-                .append(rule.match)
-                .append('|')
-                .append(rule.delete)
-                .append('|')
-                .append(rule.replacementId)
-                .append(';');
-        }
-        return sb.toString();
-    }
-
-    private CompiledRule resolveRule(String blockId, List<CompiledRule> rules) {
-        for (CompiledRule rule : rules) {
-            if (rule.matches(blockId)) {
-                return rule;
-            }
+        public List<JobStatus> getJobs() {
+            return this.jobs;
         }
 
-        return null;
-    }
-
-    private void recordMatch(ScanJob job, String matchedKey) {
-        if (job == null) {
-            return;
+        public int getRunningJobs() {
+            return this.runningJobs;
         }
 
-        String key = matchedKey == null ? "" : matchedKey.trim();
-        if (key.isBlank()) {
-            key = "__UNKNOWN__";
+        public boolean isTotalEstimated() {
+            return this.totalEstimated;
         }
 
-        synchronized (job.lock) {
-            job.matchBreakdown.merge(key, 1L, Long::sum);
+        public long getTotalChunks() {
+            return this.totalChunks;
         }
-    }
 
-    private String buildMatchSummary(Map<String, Long> matchBreakdown, int limit) {
-        if (matchBreakdown == null || matchBreakdown.isEmpty()) {
-            return "";
+        public long getProcessedChunks() {
+            return this.processedChunks;
         }
 
-        StringBuilder sb = new StringBuilder();
-        matchBreakdown.entrySet().stream()
-            .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
-            .limit(limit)
-            .forEachOrdered(entry -> {
-                if (sb.length() > 0) {
-                    sb.append(", ");
-                }
-                sb.append(entry.getKey()).append('=').append(entry.getValue());
-            });
-
-        return sb.toString();
-    }
-
-    private boolean isDeleteReplacement(String replaceWith) {
-        if (replaceWith == null) {
-            return true;
+        public long getTouchedChunks() {
+            return this.touchedChunks;
         }
 
-        String normalized = replaceWith.trim();
-        if (normalized.isEmpty()) {
-            return true;
+        public long getFailedChunks() {
+            return this.failedChunks;
         }
 
-        return DELETE_REPLACEMENTS.contains(normalized.toUpperCase(Locale.ROOT));
-    }
-
-    public static final class StartResult {
-        private final boolean started;
-        private final String message;
-
-        private StartResult(boolean started, String message) {
-            this.started = started;
-            this.message = message;
+        public long getTotalMatches() {
+            return this.totalMatches;
         }
 
-        public static StartResult started(String message) {
-            return new StartResult(true, message);
+        public int getChunkLoadsInFlight() {
+            return this.chunkLoadsInFlight;
         }
 
-        public static StartResult notStarted(String message) {
-            return new StartResult(false, message);
+        /**
+         * Configured server-wide cap, {@code 0} when unlimited.
+         */
+        public int getGlobalMaxInFlightChunks() {
+            return this.globalMaxInFlightChunks;
         }
 
-        public boolean isStarted() {
-            return this.started;
-        }
+        public double getProgressPercent() {
+            if (this.totalChunks <= 0L) {
+                return 0.0d;
+            }
 
-        public String getMessage() {
-            return this.message;
+            return (this.processedChunks * 100.0d) / this.totalChunks;
         }
     }
 
     public static final class PendingScan {
         private final String worldName;
-        private final List<Long> chunkIndexes;
+        private final String worldSaveIdentity;
+        private final long[] touchedChunkIndexes;
+        private final long[] failedChunkIndexes;
         private final int totalChunks;
         private final int touchedChunks;
         private final int failedChunks;
@@ -1354,9 +1677,11 @@ public class WorldSanitizerService {
         private final String rulesSignature;
         private final Instant createdAt;
 
-        private PendingScan(
+        PendingScan(
             String worldName,
-            List<Long> chunkIndexes,
+            String worldSaveIdentity,
+            long[] touchedChunkIndexes,
+            long[] failedChunkIndexes,
             int totalChunks,
             int touchedChunks,
             int failedChunks,
@@ -1365,11 +1690,9 @@ public class WorldSanitizerService {
             Instant createdAt
         ) {
             this.worldName = worldName;
-            if (chunkIndexes == null || chunkIndexes.isEmpty()) {
-                this.chunkIndexes = List.of();
-            } else {
-                this.chunkIndexes = Collections.unmodifiableList(new ArrayList<>(chunkIndexes));
-            }
+            this.worldSaveIdentity = worldSaveIdentity;
+            this.touchedChunkIndexes = sortedInPlace(touchedChunkIndexes);
+            this.failedChunkIndexes = sortedInPlace(failedChunkIndexes);
             this.totalChunks = totalChunks;
             this.touchedChunks = touchedChunks;
             this.failedChunks = failedChunks;
@@ -1382,8 +1705,22 @@ public class WorldSanitizerService {
             return this.worldName;
         }
 
-        public List<Long> getChunkIndexes() {
-            return this.chunkIndexes;
+        public String getWorldSaveIdentity() {
+            return this.worldSaveIdentity;
+        }
+
+        /**
+         * Chunks where the dry-scan found at least one match, in ascending index order.
+         */
+        public LongList getTouchedChunkIndexes() {
+            return LongLists.unmodifiable(LongArrayList.wrap(this.touchedChunkIndexes));
+        }
+
+        /**
+         * Chunks the dry-scan could not load or scan, in ascending index order.
+         */
+        public LongList getFailedChunkIndexes() {
+            return LongLists.unmodifiable(LongArrayList.wrap(this.failedChunkIndexes));
         }
 
         public int getTotalChunks() {
@@ -1406,9 +1743,32 @@ public class WorldSanitizerService {
             return this.rulesSignature;
         }
 
+        public Instant getCreatedAt() {
+            return this.createdAt;
+        }
+
         public double getAgeSeconds() {
             return Duration.between(this.createdAt, Instant.now()).toMillis() / 1000.0d;
         }
+
+        /**
+         * Takes ownership of {@code chunkIndexes}. Jobs account chunks in queue order, so the array is usually sorted
+         * already and is only sorted when it is not.
+         */
+        private static long[] sortedInPlace(long[] chunkIndexes) {
+            if (chunkIndexes == null) {
+                return new long[0];
+            }
+
+            for (int i = 1; i < chunkIndexes.length; i++) {
+                if (chunkIndexes[i - 1] > chunkIndexes[i]) {
+                    Arrays.sort(chunkIndexes);
+                    break;
+                }
+            }
+
+            return chunkIndexes;
+        }
     }
 
     public static final class JobStatus {
@@ -1417,12 +1777,28 @@ public class WorldSanitizerService {
         private final boolean running;
         private final boolean cancelled;
         private final int totalChunks;
+        private final boolean totalEstimated;
         private final int processedChunks;
         private final int touchedChunks;
         private final int failedChunks;
         private final long totalMatches;
+        private final int residentJobChunks;
+        private final int retainedJobChunks;
+        private final int inFlightChunks;
+        private final int pendingChunks;
+        private final int scanQueueDepth;
+        private final int concurrencyLimit;
+        private final int maxInFlightChunks;
+        private final double worldThreadLagMillis;
+        private final long unknownKeySlowPaths;
+        private final long unknownKeyCacheHits;
+        private final List<PhaseTiming> phaseTimings;
+        private final double chunkRate;
+        private final double voxelRate;
+        private final double matchRate;
         private final Instant startedAt;
         private final Instant finishedAt;
+        private final Instant lastProgressAt;
         private final String cancelReason;
 
         private JobStatus(
@@ -1431,12 +1807,28 @@ public class WorldSanitizerService {
             boolean running,
             boolean cancelled,
             int totalChunks,
+            boolean totalEstimated,
             int processedChunks,
             int touchedChunks,
             int failedChunks,
             long totalMatches,
+            int residentJobChunks,
+            int retainedJobChunks,
+            int inFlightChunks,
+            int pendingChunks,
+            int scanQueueDepth,
+            int concurrencyLimit,
+            int maxInFlightChunks,
+            double worldThreadLagMillis,
+            long unknownKeySlowPaths,
+            long unknownKeyCacheHits,
+            List<PhaseTiming> phaseTimings,
+            double chunkRate,
+            double voxelRate,
+            double matchRate,
             Instant startedAt,
             Instant finishedAt,
+            Instant lastProgressAt,
             String cancelReason
         ) {
             this.worldName = worldName;
@@ -1444,12 +1836,28 @@ public class WorldSanitizerService {
             this.running = running;
             this.cancelled = cancelled;
             this.totalChunks = totalChunks;
+            this.totalEstimated = totalEstimated;
             this.processedChunks = processedChunks;
             this.touchedChunks = touchedChunks;
             this.failedChunks = failedChunks;
             this.totalMatches = totalMatches;
+            this.residentJobChunks = residentJobChunks;
+            this.retainedJobChunks = retainedJobChunks;
+            this.inFlightChunks = inFlightChunks;
+            this.pendingChunks = pendingChunks;
+            this.scanQueueDepth = scanQueueDepth;
+            this.concurrencyLimit = concurrencyLimit;
+            this.maxInFlightChunks = maxInFlightChunks;
+            this.worldThreadLagMillis = worldThreadLagMillis;
+            this.unknownKeySlowPaths = unknownKeySlowPaths;
+            this.unknownKeyCacheHits = unknownKeyCacheHits;
+            this.phaseTimings = List.copyOf(phaseTimings);
+            this.chunkRate = chunkRate;
+            this.voxelRate = voxelRate;
+            this.matchRate = matchRate;
             this.startedAt = startedAt;
             this.finishedAt = finishedAt;
+            this.lastProgressAt = lastProgressAt;
             this.cancelReason = cancelReason;
         }
 
@@ -1473,6 +1881,13 @@ public class WorldSanitizerService {
             return this.totalChunks;
         }
 
+        /**
+         * True while chunk discovery is still running; {@link #getTotalChunks()} is then a lower bound.
+         */
+        public boolean isTotalEstimated() {
+            return this.totalEstimated;
+        }
+
         public int getProcessedChunks() {
             return this.processedChunks;
         }
@@ -1489,6 +1904,83 @@ public class WorldSanitizerService {
             return this.totalMatches;
         }
 
+        /**
+         * Chunks loaded by this job that are still resident, waiting to be scanned or released.
+         */
+        public int getResidentJobChunks() {
+            return this.residentJobChunks;
+        }
+
+        /**
+         * Chunks loaded by this job that it scanned but left loaded for the server: modified by an execute, near a
+         * player, or failed to unload. The server saves and unloads them on its own schedule.
+         */
+        public int getRetainedJobChunks() {
+            return this.retainedJobChunks;
+        }
+
+        /**
+         * Chunks dispatched for loading or scanning that have not completed yet.
+         */
+        public int getInFlightChunks() {
+            return this.inFlightChunks;
+        }
+
+        /**
+         * Discovered chunks not dispatched yet.
+         */
+        public int getPendingChunks() {
+            return this.pendingChunks;
+        }
+
+        /**
+         * Loaded chunks waiting for, or in the middle of, a world-thread scan.
+         */
+        public int getScanQueueDepth() {
+            return this.scanQueueDepth;
+        }
+
+        /**
+         * Chunks the adaptive throttle currently lets the job have in flight; {@code 0} while dispatch is paused.
+         * Equal to {@link #getMaxInFlightChunks()} when the throttle is disabled.
+         */
+        public int getConcurrencyLimit() {
+            return this.concurrencyLimit;
+        }
+
+        public int getMaxInFlightChunks() {
+            return this.maxInFlightChunks;
+        }
+
+        /**
+         * How long the last probe task waited for the world thread, or -1 when the throttle is disabled or has no
+         * sample yet.
+         */
+        public double getWorldThreadLagMillis() {
+            return this.worldThreadLagMillis;
+        }
+
+        /**
+         * Number of times an unknown key was extracted from a thrown exception.
+         */
+        public long getUnknownKeySlowPaths() {
+            return this.unknownKeySlowPaths;
+        }
+
+        /**
+         * Number of times a cached unknown key spared an exception.
+         */
+        public long getUnknownKeyCacheHits() {
+            return this.unknownKeyCacheHits;
+        }
+
+        /**
+         * Latency percentiles of each scan phase, in phase order.
+         */
+        public List<PhaseTiming> getPhaseTimings() {
+            return this.phaseTimings;
+        }
+
         public double getProgressPercent() {
             if (this.totalChunks <= 0) {
                 return 0.0d;
@@ -1502,67 +1994,270 @@ public class WorldSanitizerService {
             return Duration.between(this.startedAt, end).toMillis() / 1000.0d;
         }
 
+        /**
+         * Seconds since the last chunk completed, or since the job started when none has; stops at the finish time.
+         */
+        public double getSecondsSinceProgress() {
+            Instant since = this.lastProgressAt != null ? this.lastProgressAt : this.startedAt;
+            Instant end = this.finishedAt != null ? this.finishedAt : Instant.now();
+            return Math.max(0L, Duration.between(since, end).toMillis()) / 1000.0d;
+        }
+
+        /**
+         * Average chunks per second since the job started.
+         */
+        public double getChunksPerSecond() {
+            double elapsedSeconds = this.getElapsedSeconds();
+            return elapsedSeconds > 0.0d ? this.processedChunks / elapsedSeconds : 0.0d;
+        }
+
+        /**
+         * Chunks per second averaged over roughly the last minute; 0 once the job stopped or before the first
+         * five-second tick.
+         */
+        public double getChunkRate() {
+            return this.chunkRate;
+        }
+
+        /**
+         * Block positions per second averaged like {@link #getChunkRate()}, counting sections skipped by the palette
+         * check as covered.
+         */
+        public double getVoxelRate() {
+            return this.voxelRate;
+        }
+
+        /**
+         * Rule matches per second averaged like {@link #getChunkRate()}.
+         */
+        public double getMatchRate() {
+            return this.matchRate;
+        }
+
+        /**
+         * Seconds left at the current chunk rate, 0 once the job stopped, or -1 while the rate is not known yet.
+         * A lower bound while {@link #isTotalEstimated()} is true.
+         */
+        public long getEtaSeconds() {
+            if (!this.running) {
+                return 0L;
+            }
+            if (this.chunkRate <= 0.0d) {
+                return -1L;
+            }
+
+            int remainingChunks = Math.max(0, this.totalChunks - this.processedChunks);
+            return (long) Math.ceil(remainingChunks / this.chunkRate);
+        }
+
         public String getCancelReason() {
             return this.cancelReason;
         }
     }
 
+    public static final class PhaseTiming {
+        private final String phase;
+        private final long samples;
+        private final long p50Nanos;
+        private final long p95Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+
+        private PhaseTiming(String phase, long samples, long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+            this.phase = phase;
+            this.samples = samples;
+            this.p50Nanos = p50Nanos;
+            this.p95Nanos = p95Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public String getPhase() {
+            return this.phase;
+        }
+
+        public long getSamples() {
+            return this.samples;
+        }
+
+        public long getP50Nanos() {
+            return this.p50Nanos;
+        }
+
+        public long getP95Nanos() {
+            return this.p95Nanos;
+        }
+
+        public long getP99Nanos() {
+            return this.p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return this.maxNanos;
+        }
+
+        /**
+         * One-line summary in milliseconds, e.g.
+         * {@code chunk load: n=812 p50=1.20ms p95=4.80ms p99=9.60ms max=31.02ms}.
+         */
+        public String format() {
+            return String.format(
+                "%s: n=%d p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+                this.phase,
+                this.samples,
+                this.p50Nanos / 1_000_000.0d,
+                this.p95Nanos / 1_000_000.0d,
+                this.p99Nanos / 1_000_000.0d,
+                this.maxNanos / 1_000_000.0d
+            );
+        }
+    }
+
     private static final class ScanJob {
         private final Object lock = new Object();
         private final World world;
-        private final List<Long> chunkIndexes;
-        private final ArrayDeque<Long> queue;
-        private final List<CompiledRule> rules;
-        private final int maxReplacementsPerChunk;
+        // nextDispatchSequence is the cursor into the queue.
+        private final ChunkQueue queue;
+        private final ChunkScanner scanner;
         private final int matchBreakdownLimit;
-        private final boolean autoDeleteUnknownKeys;
+        private final int maxInFlightChunks;
+        private final AdaptiveThrottle throttle;
+        // Set by createJob before the job is published; null while the chunk report is disabled.
+        private ChunkReportWriter reportWriter;
+        // Set by createJob before the job is published; see JobCheckpointStore#claim.
+        private long checkpointGeneration;
         private final JobMode mode;
         private final String rulesSignature;
+        private final String worldSaveIdentity;
+        private final long checkpointIntervalMillis;
+        private final long worldThreadBudgetNanos;
+        private final boolean releaseLoadedChunks;
+        private final int releasePlayerRadiusChunks;
+        private final ChunkOrder chunkOrder;
+        private final AtomicInteger residentOwnedChunks = new AtomicInteger();
+        private final AtomicInteger retainedOwnedChunks = new AtomicInteger();
+        private final Object checkpointLock = new Object();
         private final Instant startedAt;
 
-        private boolean running = true;
-        private boolean processing;
-        private boolean cancelRequested;
-        private String cancelReason = "";
-        private int processedChunks;
-        private int touchedChunks;
-        private int failedChunks;
-        private long totalMatches;
-        private final Map<String, Long> matchBreakdown = new HashMap<>();
-        private Instant finishedAt;
+        private final Long2ObjectOpenHashMap<CompletedChunk> completedOutOfOrder = new Long2ObjectOpenHashMap<>();
+        private final ArrayDeque<ChunkScanTask> scanTasks = new ArrayDeque<>();
+        private final LongArrayList touchedChunkIndexes = new LongArrayList();
+        private final LongArrayList failedChunkIndexes = new LongArrayList();
+
+        // Fields read by snapshot() are volatile or adders so status polling never takes the lock;
+        // writes that must stay consistent with the queue still happen under it.
+        private volatile boolean running = true;
+        private boolean drainScheduled;
+        private volatile int inFlight;
+        private volatile long nextDispatchSequence;
+        private volatile int scanQueueDepth;
+        private volatile long lastProgressAtMillis;
+        private long nextAccountSequence;
+        private volatile boolean cancelRequested;
+        private volatile String cancelReason = "";
+        private volatile int restoredChunks;
+        private final LongAdder processedChunks = new LongAdder();
+        private final LongAdder touchedChunks = new LongAdder();
+        private final LongAdder failedChunks = new LongAdder();
+        private final LongAdder totalMatches = new LongAdder();
+        private final LatencyHistogram[] phaseLatencies = newPhaseLatencies();
+        private final RateMeter chunkRate = new RateMeter();
+        private final RateMeter voxelRate = new RateMeter();
+        private final RateMeter matchRate = new RateMeter();
+        private volatile Instant finishedAt;
+        private long lastCheckpointAtMillis;
+        private int lastWrittenCheckpointChunks;
 
         private ScanJob(
             World world,
-            List<Long> chunkIndexes,
+            long[] chunkIndexes,
             List<CompiledRule> rules,
             int maxReplacementsPerChunk,
             int matchBreakdownLimit,
+            int maxInFlightChunks,
             boolean autoDeleteUnknownKeys,
             JobMode mode,
-            String rulesSignature
+            String rulesSignature,
+            String worldSaveIdentity,
+            int checkpointIntervalSeconds,
+            int worldThreadBudgetMillis,
+            int worldThreadLagBudgetMillis,
+            boolean releaseLoadedChunks,
+            int releasePlayerRadiusChunks,
+            ChunkOrder chunkOrder
         ) {
             this.world = world;
-            this.chunkIndexes = List.copyOf(chunkIndexes);
-            this.queue = new ArrayDeque<>(chunkIndexes);
-            this.rules = rules;
-            this.maxReplacementsPerChunk = maxReplacementsPerChunk;
+            this.queue = new ChunkQueue(chunkIndexes);
+            this.scanner = new ChunkScanner(
+                mode,
+                rules,
+                ServerBlockTypes.INSTANCE,
+                maxReplacementsPerChunk,
+                autoDeleteUnknownKeys
+            );
             this.matchBreakdownLimit = matchBreakdownLimit;
-            this.autoDeleteUnknownKeys = autoDeleteUnknownKeys;
+            this.maxInFlightChunks = Math.max(1, maxInFlightChunks);
+            this.throttle = new AdaptiveThrottle(this.maxInFlightChunks, worldThreadLagBudgetMillis);
             this.mode = mode;
             this.rulesSignature = rulesSignature;
+            this.worldSaveIdentity = worldSaveIdentity;
+            this.checkpointIntervalMillis = Math.max(0, checkpointIntervalSeconds) * 1000L;
+            this.worldThreadBudgetNanos = Math.max(0, worldThreadBudgetMillis) * 1_000_000L;
+            this.releaseLoadedChunks = releaseLoadedChunks;
+            this.releasePlayerRadiusChunks = releasePlayerRadiusChunks;
+            this.chunkOrder = chunkOrder;
             this.startedAt = Instant.now();
+            this.lastCheckpointAtMillis = System.currentTimeMillis();
+        }
+
+        private void restore(JobCheckpointStore.Checkpoint checkpoint) {
+            synchronized (this.lock) {
+                this.restoredChunks = checkpoint.processedChunks;
+                this.processedChunks.add(checkpoint.processedChunks);
+                this.touchedChunks.add(checkpoint.touchedChunks);
+                this.failedChunks.add(checkpoint.failedChunks);
+                this.totalMatches.add(checkpoint.totalMatches);
+                this.scanner.matchBreakdown.addAll(checkpoint.matchBreakdown);
+                this.touchedChunkIndexes.addElements(0, checkpoint.touchedChunkIndexes);
+                this.failedChunkIndexes.addElements(0, checkpoint.failedChunkIndexes);
+            }
+        }
+
+        private void beginDiscovery() {
+            synchronized (this.lock) {
+                this.queue.beginDiscovery();
+            }
         }
 
-        private List<Long> getChunkIndexes() {
-            return this.chunkIndexes;
+        private boolean isDiscovering() {
+            return this.queue.isDiscovering() && this.running && !this.cancelRequested;
         }
 
-        private boolean isRunning() {
+        /**
+         * Queues the chunks not seen before and returns true when at least one was new.
+         */
+        private boolean appendDiscovered(long[] chunkIndexes) {
+            synchronized (this.lock) {
+                return this.running && this.queue.append(chunkIndexes);
+            }
+        }
+
+        private int completeDiscovery() {
             synchronized (this.lock) {
-                return this.running;
+                return this.queue.completeDiscovery();
             }
         }
 
+        private boolean isCheckpointDue() {
+            return !this.queue.isDiscovering() &&
+                this.checkpointIntervalMillis > 0L &&
+                System.currentTimeMillis() - this.lastCheckpointAtMillis >= this.checkpointIntervalMillis;
+        }
+
+        private boolean isRunning() {
+            return this.running;
+        }
+
         private void cancel(String reason) {
             synchronized (this.lock) {
                 if (!this.running) {
@@ -1574,75 +2269,103 @@ public class WorldSanitizerService {
             }
         }
 
+        /**
+         * Lock-free; while the job runs the counters may be a few chunks apart from each other.
+         */
         private JobStatus snapshot() {
-            synchronized (this.lock) {
-                return new JobStatus(
-                    this.world.getName(),
-                    this.mode,
-                    this.running,
-                    this.cancelRequested,
-                    this.queue.size() + this.processedChunks + (this.processing ? 1 : 0),
-                    this.processedChunks,
-                    this.touchedChunks,
-                    this.failedChunks,
-                    this.totalMatches,
-                    this.startedAt,
-                    this.finishedAt,
-                    this.cancelReason
-                );
-            }
+            return new JobStatus(
+                this.world.getName(),
+                this.mode,
+                this.running,
+                this.cancelRequested,
+                this.queue.size() + this.restoredChunks,
+                this.queue.isDiscovering(),
+                this.processedChunks.intValue(),
+                this.touchedChunks.intValue(),
+                this.failedChunks.intValue(),
+                this.totalMatches.sum(),
+                this.residentOwnedChunks.get(),
+                this.retainedOwnedChunks.get(),
+                this.inFlight,
+                (int) Math.max(0L, this.queue.size() - this.nextDispatchSequence),
+                this.scanQueueDepth,
+                this.throttle.limit(),
+                this.maxInFlightChunks,
+                this.throttle.lastLagNanos() >= 0L ? this.throttle.lastLagNanos() / 1_000_000.0d : -1.0d,
+                this.scanner.unknownKeys.slowPathCount.sum(),
+                this.scanner.unknownKeys.cacheHitCount.sum(),
+                this.phaseTimings(),
+                this.running ? this.chunkRate.rate() : 0.0d,
+                this.running ? this.voxelRate.rate() : 0.0d,
+                this.running ? this.matchRate.rate() : 0.0d,
+                this.startedAt,
+                this.finishedAt,
+                this.lastProgressAtMillis > 0L ? Instant.ofEpochMilli(this.lastProgressAtMillis) : null,
+                this.cancelReason
+            );
         }
-    }
 
-    private static final class CompiledRule {
-        private final RuleMode mode;
-        private final String match;
-        private final String replacementId;
-        private final boolean delete;
-
-        private CompiledRule(RuleMode mode, String match, String replacementId, boolean delete) {
-            this.mode = mode;
-            this.match = match;
-            this.replacementId = replacementId;
-            this.delete = delete;
+        private Map<String, Long> matchBreakdownSnapshot() {
+            return this.scanner.matchBreakdown.toMap();
         }
 
-        private boolean matches(String blockId) {
-            return this.mode.matches(this.match, blockId);
+        private void recordPhase(ScanPhase phase, long nanos) {
+            this.phaseLatencies[phase.ordinal()].record(nanos);
         }
 
-        private String getReplacementId() {
-            return this.replacementId;
+        private List<PhaseTiming> phaseTimings() {
+            List<PhaseTiming> timings = new ArrayList<>(ScanPhase.count());
+            for (int i = 0; i < ScanPhase.count(); i++) {
+                LatencyHistogram histogram = this.phaseLatencies[i];
+                timings.add(
+                    new PhaseTiming(
+                        ScanPhase.ofOrdinal(i).label(),
+                        histogram.count(),
+                        histogram.percentile(0.50d),
+                        histogram.percentile(0.95d),
+                        histogram.percentile(0.99d),
+                        histogram.max()
+                    )
+                );
+            }
+            return timings;
         }
 
-        private boolean isDelete() {
-            return this.delete;
+        private static LatencyHistogram[] newPhaseLatencies() {
+            LatencyHistogram[] latencies = new LatencyHistogram[ScanPhase.count()];
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LatencyHistogram();
+            }
+            return latencies;
         }
     }
 
-    private enum RuleMode {
-        EXACT,
-        PREFIX,
-        CONTAINS;
-
-        private static RuleMode from(String mode) {
-            if (mode == null) {
-                return PREFIX;
-            }
-
-            return switch (mode.trim().toLowerCase()) {
-                case "exact" -> EXACT;
-                case "contains" -> CONTAINS;
-                default -> PREFIX;
-            };
+    /**
+     * Resumable scan of one loaded chunk. Only touched on the world thread.
+     */
+    private static final class ChunkScanTask extends ChunkScanCursor {
+        private final long sequence;
+        private final long chunkIndex;
+        private final boolean ownedByJob;
+        private final long enqueuedAtNanos = System.nanoTime();
+        private boolean started;
+        private long blockPassNanos;
+        private ChunkScanResult result;
+
+        private ChunkScanTask(long sequence, long chunkIndex, boolean ownedByJob) {
+            this.sequence = sequence;
+            this.chunkIndex = chunkIndex;
+            this.ownedByJob = ownedByJob;
         }
+    }
+
+    private static final class CompletedChunk {
+        private final long chunkIndex;
+        private final ChunkScanResult result;
 
-        private boolean matches(String match, String blockId) {
-            return switch (this) {
-                case EXACT -> blockId.equals(match);
-                case PREFIX -> blockId.startsWith(match);
-                case CONTAINS -> blockId.contains(match);
-            };
+        private CompletedChunk(long chunkIndex, ChunkScanResult result) {
+            this.chunkIndex = chunkIndex;
+            this.result = result;
         }
     }
 
@@ -1651,24 +2374,26 @@ public class WorldSanitizerService {
         private final int matches;
         private final boolean failed;
         private final Throwable error;
+        private final ChunkReport report;
 
-        private ChunkScanResult(boolean touched, int matches, boolean failed, Throwable error) {
+        private ChunkScanResult(boolean touched, int matches, boolean failed, Throwable error, ChunkReport report) {
             this.touched = touched;
             this.matches = matches;
             this.failed = failed;
             this.error = error;
+            this.report = report;
         }
 
-        private static ChunkScanResult touched(int matches) {
-            return new ChunkScanResult(true, matches, false, null);
+        private static ChunkScanResult touched(int matches, ChunkReport report) {
+            return new ChunkScanResult(true, matches, false, null, report);
         }
 
         private static ChunkScanResult missing() {
-            return new ChunkScanResult(false, 0, false, null);
+            return new ChunkScanResult(false, 0, false, null, null);
         }
 
         private static ChunkScanResult failed(Throwable error) {
-            return new ChunkScanResult(false, 0, true, error);
+            return new ChunkScanResult(false, 0, true, error, null);
         }
     }
 }
@@ -0,0 +1,100 @@
+package ca.nicecube.fixbadmod.scan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveThrottleTest {
+    private static final int LAG_BUDGET_MILLIS = 50;
+
+    private final List<String> changes = new ArrayList<>();
+    private final AdaptiveThrottle.Listener listener = (previous, current) -> this.changes.add(previous + "->" + current);
+
+    @Test
+    void disabledThrottleAlwaysAllowsTheMaximum() {
+        AdaptiveThrottle throttle = new AdaptiveThrottle(8, 0);
+
+        assertFalse(throttle.isEnabled());
+        assertEquals(8, throttle.limit());
+    }
+
+    @Test
+    void lateProbesHalveTheLimitDownToAPause() throws InterruptedException {
+        AdaptiveThrottle throttle = new AdaptiveThrottle(8, LAG_BUDGET_MILLIS);
+        HeldExecutor worldThread = new HeldExecutor();
+
+        throttle.probe(worldThread, this.listener);
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(LAG_BUDGET_MILLIS + 10L);
+            // The first probe is still queued, so every further probe counts as late.
+            throttle.probe(worldThread, this.listener);
+        }
+
+        assertEquals(1, worldThread.queued.size());
+        assertEquals(0, throttle.limit());
+        assertEquals(List.of("8->4", "4->2", "2->1", "1->0"), this.changes);
+        assertTrue(throttle.lastLagNanos() > LAG_BUDGET_MILLIS * 1_000_000L);
+    }
+
+    @Test
+    void probesWithinBudgetRaiseTheLimitByOneUpToTheMaximum() throws InterruptedException {
+        AdaptiveThrottle throttle = new AdaptiveThrottle(3, LAG_BUDGET_MILLIS);
+        HeldExecutor worldThread = new HeldExecutor();
+        throttle.probe(worldThread, this.listener);
+        Thread.sleep(LAG_BUDGET_MILLIS + 10L);
+        worldThread.runQueued();
+        assertEquals(1, throttle.limit());
+
+        Executor idleWorldThread = Runnable::run;
+        for (int i = 0; i < 4; i++) {
+            throttle.probe(idleWorldThread, this.listener);
+        }
+
+        assertEquals(3, throttle.limit());
+        assertEquals(List.of("3->1", "1->2", "2->3"), this.changes);
+    }
+
+    @Test
+    void rejectedProbeDoesNotBlockTheNextOne() {
+        AdaptiveThrottle throttle = new AdaptiveThrottle(4, LAG_BUDGET_MILLIS);
+        Executor stoppedWorldThread = command -> {
+            throw new IllegalStateException("world stopped");
+        };
+
+        try {
+            throttle.probe(stoppedWorldThread, this.listener);
+        } catch (IllegalStateException expected) {
+            // The caller logs this; the throttle must not think a probe is still queued.
+        }
+        throttle.probe(Runnable::run, this.listener);
+
+        assertEquals(4, throttle.limit());
+        assertTrue(throttle.lastLagNanos() >= 0L);
+        assertTrue(this.changes.isEmpty());
+    }
+
+    /**
+     * World thread that only runs its tasks when told to, like one stuck in a long tick.
+     */
+    private static final class HeldExecutor implements Executor {
+        private final ArrayDeque<Runnable> queued = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            this.queued.add(command);
+        }
+
+        void runQueued() {
+            Runnable command;
+            while ((command = this.queued.poll()) != null) {
+                command.run();
+            }
+        }
+    }
+}
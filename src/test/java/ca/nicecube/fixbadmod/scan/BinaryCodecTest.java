@@ -0,0 +1,98 @@
+package ca.nicecube.fixbadmod.scan;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class BinaryCodecTest {
+    @Test
+    void varLongsRoundTrip() throws IOException {
+        long[] values = {0L, 1L, 127L, 128L, 300L, Integer.MAX_VALUE, Long.MAX_VALUE, -1L, Long.MIN_VALUE};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (long value : values) {
+            BinaryCodec.writeVarLong(out, value);
+        }
+
+        DataInputStream in = input(bytes.toByteArray());
+        for (long value : values) {
+            assertEquals(value, BinaryCodec.readVarLong(in));
+        }
+    }
+
+    @Test
+    void zigzagKeepsSmallDeltasSmall() {
+        for (long value : new long[] {0L, 1L, -1L, 42L, -42L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertEquals(value, BinaryCodec.unzigzag(BinaryCodec.zigzag(value)));
+        }
+        assertEquals(1L, BinaryCodec.zigzag(-1L));
+        assertEquals(2L, BinaryCodec.zigzag(1L));
+    }
+
+    @Test
+    void chunkIndexesRoundTripInEitherEncoding() throws IOException {
+        long[] sorted = {-5_000_000_000L, -3L, 0L, 7L, 1L << 40};
+        long[] queued = {1L << 40, -3L, 7L, -5_000_000_000L, 0L};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        BinaryCodec.writeSortedChunkIndexes(out, LongArrayList.wrap(sorted));
+        BinaryCodec.writeChunkIndexes(out, queued, 1, 4);
+
+        DataInputStream in = input(bytes.toByteArray());
+        assertArrayEquals(sorted, BinaryCodec.readChunkIndexes(in, bytes.size()));
+        assertArrayEquals(new long[] {-3L, 7L, -5_000_000_000L}, BinaryCodec.readChunkIndexes(in, bytes.size()));
+    }
+
+    @Test
+    void countsLargerThanTheFileAreRejectedBeforeAllocating() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryCodec.writeVarLong(new DataOutputStream(bytes), 1L << 40);
+
+        assertThrows(IOException.class, () -> BinaryCodec.readChunkIndexes(input(bytes.toByteArray()), 1024L));
+    }
+
+    @Test
+    void negativeCountsAreRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryCodec.writeVarLong(new DataOutputStream(bytes), -2L);
+
+        assertThrows(IOException.class, () -> BinaryCodec.readCount(input(bytes.toByteArray()), Long.MAX_VALUE));
+    }
+
+    @Test
+    void truncatedInputFailsWithEof() {
+        byte[] unterminated = {(byte) 0x85, (byte) 0x80};
+
+        assertThrows(EOFException.class, () -> BinaryCodec.readVarLong(input(unterminated)));
+    }
+
+    @Test
+    void overlongVarLongIsMalformed() {
+        byte[] overlong = new byte[11];
+        Arrays.fill(overlong, (byte) 0x80);
+
+        assertThrows(IOException.class, () -> BinaryCodec.readVarLong(input(overlong)));
+    }
+
+    @Test
+    void stateFileNamesOfCollidingWorldNamesDiffer() {
+        assertEquals(BinaryCodec.sanitizeFileName("my world"), BinaryCodec.sanitizeFileName("my:world"));
+        assertNotEquals(BinaryCodec.stateFileName("my world"), BinaryCodec.stateFileName("my:world"));
+        assertEquals(BinaryCodec.stateFileName("my world"), BinaryCodec.stateFileName("my world"));
+    }
+
+    private static DataInputStream input(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+}
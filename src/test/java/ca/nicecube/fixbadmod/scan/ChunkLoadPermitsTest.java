@@ -0,0 +1,109 @@
+package ca.nicecube.fixbadmod.scan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ChunkLoadPermitsTest {
+    @Test
+    void neverGrantsMoreThanTheLimit() {
+        ChunkLoadPermits<String> permits = new ChunkLoadPermits<>();
+        permits.setLimit(5);
+        String[] owners = {"a", "b", "c"};
+        int[] held = new int[owners.length];
+        Random random = new Random(7L);
+
+        for (int step = 0; step < 10_000; step++) {
+            int owner = random.nextInt(owners.length);
+            if (random.nextBoolean()) {
+                held[owner] += permits.acquire(owners[owner], 1 + random.nextInt(4));
+            } else if (held[owner] > 0) {
+                int released = 1 + random.nextInt(held[owner]);
+                permits.release(owners[owner], released);
+                held[owner] -= released;
+            }
+
+            assertTrue(permits.getInFlight() <= 5, "in flight: " + permits.getInFlight());
+            assertEquals(held[0] + held[1] + held[2], permits.getInFlight());
+        }
+    }
+
+    @Test
+    void grantsOnePermitAtATimeWhileOthersWait() {
+        ChunkLoadPermits<String> permits = new ChunkLoadPermits<>();
+        permits.setLimit(4);
+
+        assertEquals(4, permits.acquire("a", 10));
+        assertEquals(0, permits.acquire("b", 10));
+
+        permits.release("a", 3);
+        // Both are queued, "a" first. Only the head is served, one permit per turn, then it goes to the back.
+        assertEquals(0, permits.acquire("b", 10));
+        assertEquals(1, permits.acquire("a", 10));
+        assertEquals(0, permits.acquire("a", 10));
+        assertEquals(1, permits.acquire("b", 10));
+        assertEquals(1, permits.acquire("a", 10));
+        assertEquals(4, permits.getInFlight());
+        assertEquals(0, permits.acquire("b", 10));
+    }
+
+    @Test
+    void nextWaitingRotatesThroughOwners() {
+        ChunkLoadPermits<String> permits = new ChunkLoadPermits<>();
+        permits.setLimit(1);
+        assertEquals(1, permits.acquire("holder", 1));
+        for (String owner : new String[] {"a", "b", "c"}) {
+            assertEquals(0, permits.acquire(owner, 5));
+        }
+        assertNull(permits.nextWaiting());
+
+        List<String> turns = new ArrayList<>();
+        String previous = "holder";
+        for (int turn = 0; turn < 6; turn++) {
+            permits.release(previous, 1);
+            String next = permits.nextWaiting();
+            turns.add(next);
+            assertEquals(1, permits.acquire(next, 5));
+            previous = next;
+        }
+
+        assertEquals(List.of("a", "b", "c", "a", "b", "c"), turns);
+    }
+
+    @Test
+    void forgetReturnsHeldPermits() {
+        ChunkLoadPermits<String> permits = new ChunkLoadPermits<>();
+        permits.setLimit(4);
+        assertEquals(3, permits.acquire("a", 3));
+        assertEquals(1, permits.acquire("b", 4));
+
+        permits.forget("a");
+
+        assertEquals(1, permits.getInFlight());
+        assertEquals("b", permits.nextWaiting());
+        // Loads of a forgotten owner that complete later do not free permits twice.
+        permits.release("a", 3);
+        assertEquals(1, permits.getInFlight());
+        assertEquals(3, permits.acquire("b", 3));
+    }
+
+    @Test
+    void limitOfZeroDisablesTheCap() {
+        ChunkLoadPermits<String> permits = new ChunkLoadPermits<>();
+        permits.setLimit(0);
+
+        assertEquals(100, permits.acquire("a", 100));
+        assertEquals(100, permits.getInFlight());
+        assertNull(permits.nextWaiting());
+
+        permits.setLimit(50);
+        assertEquals(0, permits.acquire("b", 1));
+        permits.release("a", 60);
+        assertEquals("b", permits.nextWaiting());
+    }
+}
@@ -0,0 +1,135 @@
+package ca.nicecube.fixbadmod.scan;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hypixel.hytale.math.util.ChunkUtil;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ChunkOrderTest {
+    private static final int REGION_SIZE = RegionFileIndex.REGION_SIZE;
+
+    @Test
+    void sortIsAPermutationForEveryOrder() {
+        long[] chunkIndexes = spread();
+        for (ChunkOrder order : ChunkOrder.values()) {
+            long[] sorted = chunkIndexes.clone();
+            order.sort(sorted);
+
+            long[] expected = chunkIndexes.clone();
+            long[] actual = sorted.clone();
+            Arrays.sort(expected);
+            Arrays.sort(actual);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void sortDoesNotDependOnInputOrder() {
+        long[] chunkIndexes = spread();
+        for (ChunkOrder order : ChunkOrder.values()) {
+            long[] first = chunkIndexes.clone();
+            order.sort(first);
+
+            long[] second = chunkIndexes.clone();
+            shuffle(second, new Random(order.ordinal()));
+            order.sort(second);
+
+            assertArrayEquals(first, second);
+        }
+    }
+
+    @Test
+    void regionOrdersFinishOneRegionBeforeTheNext() {
+        for (ChunkOrder order : new ChunkOrder[] {ChunkOrder.REGION_MORTON, ChunkOrder.REGION_HILBERT}) {
+            long[] sorted = spread();
+            order.sort(sorted);
+
+            int previousX = Integer.MIN_VALUE;
+            int previousZ = Integer.MIN_VALUE;
+            for (long chunkIndex : sorted) {
+                int regionX = Math.floorDiv(ChunkUtil.xOfChunkIndex(chunkIndex), REGION_SIZE);
+                int regionZ = Math.floorDiv(ChunkUtil.zOfChunkIndex(chunkIndex), REGION_SIZE);
+                // Regions are visited row-major: by regionZ, then regionX.
+                boolean sameOrLater = regionZ > previousZ || regionZ == previousZ && regionX >= previousX;
+                assertTrue(sameOrLater, order + " went back to an earlier region");
+                previousX = regionX;
+                previousZ = regionZ;
+            }
+        }
+    }
+
+    @Test
+    void hilbertStepsToANeighbourInsideARegion() {
+        long[] region = region(-1, 2);
+        ChunkOrder.REGION_HILBERT.sort(region);
+
+        for (int i = 1; i < region.length; i++) {
+            int dx = Math.abs(ChunkUtil.xOfChunkIndex(region[i]) - ChunkUtil.xOfChunkIndex(region[i - 1]));
+            int dz = Math.abs(ChunkUtil.zOfChunkIndex(region[i]) - ChunkUtil.zOfChunkIndex(region[i - 1]));
+            assertEquals(1, dx + dz);
+        }
+    }
+
+    @Test
+    void mortonVisitsQuadrantsInZOrder() {
+        long[] region = region(0, 0);
+        ChunkOrder.REGION_MORTON.sort(region);
+
+        assertEquals(ChunkUtil.indexChunk(0, 0), region[0]);
+        assertEquals(ChunkUtil.indexChunk(1, 0), region[1]);
+        assertEquals(ChunkUtil.indexChunk(0, 1), region[2]);
+        assertEquals(ChunkUtil.indexChunk(1, 1), region[3]);
+        assertEquals(ChunkUtil.indexChunk(REGION_SIZE - 1, REGION_SIZE - 1), region[region.length - 1]);
+    }
+
+    @Test
+    void unknownConfigValueFallsBackToTheDefault() {
+        assertEquals(ChunkOrder.REGION_MORTON, ChunkOrder.from(" Region-Morton "));
+        assertEquals(ChunkOrder.DEFAULT, ChunkOrder.from("spiral"));
+        assertEquals(ChunkOrder.DEFAULT, ChunkOrder.from(null));
+    }
+
+    /**
+     * Every chunk of four regions around the origin plus a few far-away chunks near the coordinate limits.
+     */
+    private static long[] spread() {
+        long[] chunkIndexes = new long[4 * REGION_SIZE * REGION_SIZE + 4];
+        int count = 0;
+        for (int regionZ = -1; regionZ <= 0; regionZ++) {
+            for (int regionX = -1; regionX <= 0; regionX++) {
+                long[] region = region(regionX, regionZ);
+                System.arraycopy(region, 0, chunkIndexes, count, region.length);
+                count += region.length;
+            }
+        }
+        chunkIndexes[count++] = ChunkUtil.indexChunk(Integer.MAX_VALUE, Integer.MIN_VALUE);
+        chunkIndexes[count++] = ChunkUtil.indexChunk(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        chunkIndexes[count++] = ChunkUtil.indexChunk(100_000, -100_000);
+        chunkIndexes[count] = ChunkUtil.indexChunk(-100_000, 100_000);
+        return chunkIndexes;
+    }
+
+    private static long[] region(int regionX, int regionZ) {
+        long[] chunkIndexes = new long[REGION_SIZE * REGION_SIZE];
+        for (int slot = 0; slot < chunkIndexes.length; slot++) {
+            chunkIndexes[slot] = ChunkUtil.indexChunk(
+                regionX * REGION_SIZE + slot % REGION_SIZE,
+                regionZ * REGION_SIZE + slot / REGION_SIZE
+            );
+        }
+        return chunkIndexes;
+    }
+
+    private static void shuffle(long[] values, Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ca.nicecube.fixbadmod.scan;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ChunkQueueTest {
+    @Test
+    void discoveryAppendsBehindQueuedChunksWithoutDuplicates() {
+        ChunkQueue queue = new ChunkQueue(new long[0]);
+        queue.beginDiscovery();
+
+        // Resident chunks first, then two region files that overlap them and each other.
+        assertTrue(queue.append(new long[] {5L, 3L}));
+        long firstChunk = queue.get(0L);
+        assertTrue(queue.append(new long[] {1L, 3L, 7L}));
+        assertFalse(queue.append(new long[] {7L, 5L}));
+        assertTrue(queue.append(new long[] {2L, 2L}));
+
+        assertEquals(firstChunk, queue.get(0L));
+        assertEquals(5, queue.size());
+        assertEquals(5, queue.completeDiscovery());
+        assertArrayEquals(new long[] {5L, 3L, 1L, 7L, 2L}, queue.remainingFrom(0));
+    }
+
+    @Test
+    void onlyCompletedDiscoveryDrainsTheQueue() {
+        ChunkQueue queue = new ChunkQueue(new long[0]);
+        queue.beginDiscovery();
+        assertFalse(queue.isDrained(0L));
+
+        queue.append(new long[] {4L});
+        assertFalse(queue.isDrained(1L));
+
+        queue.completeDiscovery();
+        assertFalse(queue.isDrained(0L));
+        assertTrue(queue.isDrained(1L));
+    }
+
+    @Test
+    void remainderIsUnknownWhileDiscovering() {
+        ChunkQueue queue = new ChunkQueue(new long[0]);
+        queue.beginDiscovery();
+        queue.append(new long[] {1L, 2L, 3L});
+
+        // A checkpoint taken now would lose every chunk discovery has yet to queue.
+        assertNull(queue.remainingFrom(1));
+
+        queue.completeDiscovery();
+        assertArrayEquals(new long[] {2L, 3L}, queue.remainingFrom(1));
+        assertArrayEquals(new long[0], queue.remainingFrom(3));
+    }
+
+    @Test
+    void appendsAfterCompletionAreIgnored() {
+        ChunkQueue queue = new ChunkQueue(new long[0]);
+        queue.beginDiscovery();
+        queue.append(new long[] {1L});
+        queue.completeDiscovery();
+
+        assertFalse(queue.append(new long[] {2L}));
+        assertEquals(1, queue.size());
+        assertFalse(queue.isDiscovering());
+    }
+
+    @Test
+    void prefilledQueueIsCompleteAndFiltersItsOwnChunks() {
+        ChunkQueue queue = new ChunkQueue(new long[] {9L, 8L});
+        assertFalse(queue.isDiscovering());
+        assertTrue(queue.isDrained(2L));
+        assertFalse(queue.append(new long[] {1L}));
+
+        queue.beginDiscovery();
+        assertTrue(queue.append(new long[] {8L, 1L}));
+        queue.completeDiscovery();
+        assertArrayEquals(new long[] {9L, 8L, 1L}, queue.remainingFrom(0));
+    }
+}
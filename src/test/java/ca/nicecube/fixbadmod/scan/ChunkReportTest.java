@@ -0,0 +1,47 @@
+package ca.nicecube.fixbadmod.scan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ChunkReportTest {
+    @Test
+    void keysResolveThroughTheBreakdownSlot() {
+        MatchBreakdown breakdown = new MatchBreakdown();
+        ChunkReport report = new ChunkReport(breakdown);
+
+        int block = breakdown.record(MatchCategory.BLOCK, "OldMod_Log");
+        int item = breakdown.record(MatchCategory.ITEM, "OldMod_Log");
+        int unknown = breakdown.record(MatchCategory.UNKNOWN_BLOCK, "");
+        report.count(block);
+        report.count(block);
+        report.count(item);
+        report.count(unknown);
+
+        assertEquals("block:OldMod_Log", report.key(block));
+        assertEquals("item:OldMod_Log", report.key(item));
+        assertEquals("unknown-block", report.key(unknown));
+        assertEquals(2, report.counts.get(block));
+        assertEquals(1, report.counts.get(item));
+        assertEquals(block, breakdown.record(MatchCategory.BLOCK, "OldMod_Log"));
+    }
+
+    @Test
+    void positionsStopAtTheCap() {
+        MatchBreakdown breakdown = new MatchBreakdown();
+        ChunkReport report = new ChunkReport(breakdown);
+        int slot = breakdown.record(MatchCategory.BLOCK, "OldMod_Log");
+
+        for (int i = 0; i < ChunkReport.MAX_POSITIONS; i++) {
+            report.position(slot, i & 31, 64, 0);
+        }
+        assertFalse(report.positionsTruncated);
+
+        report.position(slot, 0, 65, 0);
+
+        assertTrue(report.positionsTruncated);
+        assertEquals(ChunkReport.MAX_POSITIONS * 3, report.positions.get(slot).size());
+    }
+}
@@ -0,0 +1,96 @@
+package ca.nicecube.fixbadmod.scan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ca.nicecube.fixbadmod.scan.WorldSanitizerService.JobMode;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ChunkScannerTest {
+    private final TestBlockTypes blockTypes = new TestBlockTypes();
+
+    @Test
+    void brokenStateOfKnownTypeOnlyCondemnsThatBlock() {
+        int chest = this.blockTypes.indexOf("Chest");
+        TestChunk chunk = new TestChunk(this.blockTypes);
+        // The broken chest sorts first, so a per-type memo would be filled before the healthy one is read.
+        chunk.putBrokenContainer(1, 10, 0, chest, "OldMod_Item");
+        chunk.putContainer(2, 10, 0, chest, "Stone");
+
+        ChunkScanner scanner = this.scanner(JobMode.APPLY, List.of());
+        this.scan(scanner, chunk);
+
+        assertEquals(this.blockTypes.indexOf(TestBlockTypes.EMPTY_ID), chunk.getBlock(1, 10, 0));
+        assertEquals(chest, chunk.getBlock(2, 10, 0));
+        assertEquals(1L, scanner.unknownKeys.slowPathCount.sum());
+        assertEquals(0L, scanner.unknownKeys.cacheHitCount.sum());
+    }
+
+    @Test
+    void missingTypeIsDecodedOnce() {
+        int crate = this.blockTypes.missing("OldMod_Crate");
+        TestChunk chunk = new TestChunk(this.blockTypes);
+        chunk.putBrokenContainer(1, 10, 0, crate, "OldMod_Crate");
+        chunk.putBrokenContainer(2, 10, 0, crate, "OldMod_Crate");
+        chunk.putBrokenContainer(3, 10, 0, crate, "OldMod_Crate");
+
+        ChunkScanner scanner = this.scanner(JobMode.SCAN, List.of());
+        ChunkScanCursor cursor = this.scan(scanner, chunk);
+
+        assertEquals(1L, scanner.unknownKeys.slowPathCount.sum());
+        assertTrue(scanner.unknownKeys.cacheHitCount.sum() >= 2L);
+        assertEquals(3, cursor.matches);
+        assertEquals(Long.valueOf(3L), scanner.matchBreakdown.toMap().get("state-error:OldMod_Crate"));
+    }
+
+    @Test
+    void registrySwapForgetsMemoizedKeys() {
+        int crate = this.blockTypes.missing("OldMod_Crate");
+        TestChunk chunk = new TestChunk(this.blockTypes);
+        chunk.putBrokenContainer(1, 10, 0, crate, "OldMod_Crate");
+
+        ChunkScanner scanner = this.scanner(JobMode.SCAN, List.of());
+        this.scan(scanner, chunk);
+        assertFalse(scanner.revalidate());
+        assertEquals("OldMod_Crate", scanner.unknownKeys.byBlockType(crate));
+
+        this.blockTypes.swap();
+
+        assertTrue(scanner.revalidate());
+        assertNull(scanner.unknownKeys.byBlockType(crate));
+    }
+
+    @Test
+    void replacesBlocksMatchedThroughTheRuleTable() {
+        int oldLog = this.blockTypes.indexOf("OldMod_Log");
+        TestChunk chunk = new TestChunk(this.blockTypes);
+        chunk.putBlock(4, 40, 4, oldLog);
+        chunk.putBlock(5, 300, 5, oldLog);
+
+        ChunkScanner scanner = this.scanner(
+            JobMode.APPLY,
+            List.of(new CompiledRule(RuleMode.PREFIX, "OldMod_", "Wood_Log", false))
+        );
+        ChunkScanCursor cursor = this.scan(scanner, chunk);
+
+        int woodLog = this.blockTypes.indexOf("Wood_Log");
+        assertEquals(woodLog, chunk.getBlock(4, 40, 4));
+        assertEquals(woodLog, chunk.getBlock(5, 300, 5));
+        assertEquals(2, cursor.matches);
+        assertTrue(cursor.chunkModified[0]);
+    }
+
+    private ChunkScanner scanner(JobMode mode, List<CompiledRule> rules) {
+        return new ChunkScanner(mode, rules, this.blockTypes, -1, true);
+    }
+
+    private ChunkScanCursor scan(ChunkScanner scanner, TestChunk chunk) {
+        ChunkScanCursor cursor = new ChunkScanCursor();
+        cursor.componentBlocks = scanner.componentBlocks(chunk);
+        assertTrue(scanner.scanBlocks(chunk, cursor, Long.MAX_VALUE));
+        return cursor;
+    }
+}
@@ -0,0 +1,157 @@
+package ca.nicecube.fixbadmod.scan;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ca.nicecube.fixbadmod.scan.WorldSanitizerService.JobMode;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JobCheckpointStoreTest {
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void checkpointRoundTrips() throws IOException {
+        JobCheckpointStore store = new JobCheckpointStore(this.dataDirectory);
+        store.save(checkpoint("world"), store.claim("world"));
+
+        JobCheckpointStore.Checkpoint loaded = store.load("world");
+
+        assertEquals(JobMode.APPLY, loaded.mode);
+        assertEquals("world", loaded.worldName);
+        assertEquals("/saves/world", loaded.worldSaveIdentity);
+        assertEquals("rules-1", loaded.rulesSignature);
+        assertEquals(Instant.ofEpochMilli(1_700_000_000_000L), loaded.savedAt);
+        assertEquals(40, loaded.processedChunks);
+        assertEquals(2, loaded.touchedChunks);
+        assertEquals(1, loaded.failedChunks);
+        assertEquals(9L, loaded.totalMatches);
+        assertEquals(breakdown(), loaded.matchBreakdown);
+        assertArrayEquals(new long[] {3L, -8L}, loaded.touchedChunkIndexes);
+        assertArrayEquals(new long[] {11L}, loaded.failedChunkIndexes);
+        // Remaining chunks keep their queue order.
+        assertArrayEquals(new long[] {1L << 35, -1L, 0L, 2L}, loaded.remainingChunkIndexes);
+    }
+
+    @Test
+    void missingFileLoadsAsNull() throws IOException {
+        assertNull(new JobCheckpointStore(this.dataDirectory).load("world"));
+    }
+
+    @Test
+    void worldsWhoseSanitizedNamesCollideKeepSeparateFiles() throws IOException {
+        JobCheckpointStore store = new JobCheckpointStore(this.dataDirectory);
+        store.save(checkpoint("my world"), store.claim("my world"));
+        store.save(checkpoint("my:world"), store.claim("my:world"));
+
+        assertEquals("my world", store.load("my world").worldName);
+        assertEquals("my:world", store.load("my:world").worldName);
+    }
+
+    @Test
+    void fileOfAnotherWorldIsRejected() throws IOException {
+        JobCheckpointStore store = new JobCheckpointStore(this.dataDirectory);
+        store.save(checkpoint("other"), store.claim("other"));
+        Path directory = this.dataDirectory.resolve("checkpoints");
+        Files.move(
+            directory.resolve(BinaryCodec.stateFileName("other") + ".bin"),
+            directory.resolve(BinaryCodec.stateFileName("world") + ".bin")
+        );
+
+        assertThrows(IOException.class, () -> store.load("world"));
+    }
+
+    @Test
+    void truncatedFilesAreRejected() throws IOException {
+        JobCheckpointStore store = new JobCheckpointStore(this.dataDirectory);
+        store.save(checkpoint("world"), store.claim("world"));
+        Path path = this.dataDirectory.resolve("checkpoints").resolve(BinaryCodec.stateFileName("world") + ".bin");
+        byte[] valid = Files.readAllBytes(path);
+
+        for (int length = 0; length < valid.length; length++) {
+            Files.write(path, Arrays.copyOf(valid, length));
+            assertThrows(IOException.class, () -> store.load("world"), "truncated to " + length);
+        }
+    }
+
+    @Test
+    void lateWriteOfAnEarlierJobIsDroppedAfterTheWorldWasTakenOver() throws IOException {
+        JobCheckpointStore store = new JobCheckpointStore(this.dataDirectory);
+        long cancelledJob = store.claim("world");
+
+        // The next job discards the old checkpoint and claims the world before the cancelled job's write lands.
+        store.delete("world");
+        long nextJob = store.claim("world");
+
+        assertFalse(store.save(checkpoint("world"), cancelledJob));
+        assertNull(store.load("world"));
+
+        assertTrue(store.save(checkpoint("world"), nextJob));
+        assertNotNull(store.load("world"));
+    }
+
+    @Test
+    void finishedJobOnlyDeletesItsOwnCheckpoint() throws IOException {
+        JobCheckpointStore store = new JobCheckpointStore(this.dataDirectory);
+        long finishedJob = store.claim("world");
+        long nextJob = store.claim("world");
+        store.save(checkpoint("world"), nextJob);
+
+        assertFalse(store.delete("world", finishedJob));
+        assertNotNull(store.load("world"));
+
+        assertTrue(store.delete("world", nextJob));
+        assertNull(store.load("world"));
+        // Writes still in flight for the finished job must not bring the file back.
+        assertFalse(store.save(checkpoint("world"), nextJob));
+        assertNull(store.load("world"));
+    }
+
+    @Test
+    void generationsAreTrackedPerWorld() throws IOException {
+        JobCheckpointStore store = new JobCheckpointStore(this.dataDirectory);
+        long world = store.claim("world");
+        store.delete("other");
+        store.claim("other");
+
+        assertTrue(store.save(checkpoint("world"), world));
+    }
+
+    private static JobCheckpointStore.Checkpoint checkpoint(String worldName) {
+        return new JobCheckpointStore.Checkpoint(
+            JobMode.APPLY,
+            worldName,
+            "/saves/" + worldName,
+            "rules-1",
+            Instant.ofEpochMilli(1_700_000_000_000L),
+            40,
+            2,
+            1,
+            9L,
+            breakdown(),
+            new long[] {3L, -8L},
+            new long[] {11L},
+            new long[] {1L << 35, -1L, 0L, 2L}
+        );
+    }
+
+    private static Map<String, Long> breakdown() {
+        Map<String, Long> breakdown = new LinkedHashMap<>();
+        breakdown.put("block:OldMod_Log", 7L);
+        breakdown.put("item:OldMod_Gem", 2L);
+        return breakdown;
+    }
+}
@@ -0,0 +1,65 @@
+package ca.nicecube.fixbadmod.scan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0L, histogram.count());
+        assertEquals(0L, histogram.max());
+        assertEquals(0L, histogram.percentile(0.99d));
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 0L; nanos < 8L; nanos++) {
+            histogram.record(nanos);
+        }
+
+        assertEquals(3L, histogram.percentile(0.5d));
+        assertEquals(7L, histogram.percentile(1.0d));
+    }
+
+    @Test
+    void percentilesStayWithinOneEighthAboveTheTrueValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1L; nanos <= 100_000L; nanos++) {
+            histogram.record(nanos * 1_000L);
+        }
+
+        assertEquals(100_000L, histogram.count());
+        assertEquals(100_000_000L, histogram.max());
+        for (double quantile : new double[] {0.01d, 0.5d, 0.95d, 0.99d, 0.999d}) {
+            long exact = (long) Math.ceil(quantile * 100_000L) * 1_000L;
+            long reported = histogram.percentile(quantile);
+            assertTrue(reported >= exact, quantile + ": " + reported + " < " + exact);
+            assertTrue(reported <= exact + exact / 8L, quantile + ": " + reported + " > " + exact + " + 12.5%");
+        }
+        assertEquals(histogram.max(), histogram.percentile(1.0d));
+    }
+
+    @Test
+    void percentileNeverExceedsTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_001L);
+
+        assertEquals(1_000_001L, histogram.percentile(0.5d));
+    }
+
+    @Test
+    void negativeDurationsCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5L);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(2L, histogram.count());
+        assertEquals(0L, histogram.percentile(0.5d));
+        assertEquals(Long.MAX_VALUE, histogram.percentile(1.0d));
+    }
+}
@@ -0,0 +1,99 @@
+package ca.nicecube.fixbadmod.scan;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PendingScanStoreTest {
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void savedScanRoundTrips() throws IOException {
+        PendingScanStore store = new PendingScanStore(this.dataDirectory);
+        store.save(pending("world"));
+
+        WorldSanitizerService.PendingScan loaded = store.load("world");
+
+        assertEquals("world", loaded.getWorldName());
+        assertEquals("/saves/world", loaded.getWorldSaveIdentity());
+        assertEquals("rules-1", loaded.getRulesSignature());
+        assertEquals(Instant.ofEpochMilli(1_700_000_000_000L), loaded.getCreatedAt());
+        assertEquals(100, loaded.getTotalChunks());
+        assertEquals(3, loaded.getTouchedChunks());
+        assertEquals(1, loaded.getFailedChunks());
+        assertEquals(12L, loaded.getTotalMatches());
+        assertArrayEquals(new long[] {-9L, 4L, 1L << 33}, loaded.getTouchedChunkIndexes().toLongArray());
+        assertArrayEquals(new long[] {5L}, loaded.getFailedChunkIndexes().toLongArray());
+    }
+
+    @Test
+    void missingFileLoadsAsNull() throws IOException {
+        assertNull(new PendingScanStore(this.dataDirectory).load("world"));
+    }
+
+    @Test
+    void worldsWhoseSanitizedNamesCollideKeepSeparateFiles() throws IOException {
+        PendingScanStore store = new PendingScanStore(this.dataDirectory);
+        store.save(pending("my world"));
+        store.save(pending("my:world"));
+
+        assertEquals("my world", store.load("my world").getWorldName());
+        assertEquals("my:world", store.load("my:world").getWorldName());
+    }
+
+    @Test
+    void fileOfAnotherWorldIsRejected() throws IOException {
+        PendingScanStore store = new PendingScanStore(this.dataDirectory);
+        store.save(pending("other"));
+        Path directory = this.dataDirectory.resolve("pending");
+        Files.move(
+            directory.resolve(BinaryCodec.stateFileName("other") + ".bin"),
+            directory.resolve(BinaryCodec.stateFileName("world") + ".bin")
+        );
+
+        assertThrows(IOException.class, () -> store.load("world"));
+    }
+
+    @Test
+    void corruptFilesAreRejected() throws IOException {
+        PendingScanStore store = new PendingScanStore(this.dataDirectory);
+        store.save(pending("world"));
+        Path path = this.dataDirectory.resolve("pending").resolve(BinaryCodec.stateFileName("world") + ".bin");
+        byte[] valid = Files.readAllBytes(path);
+
+        byte[] flipped = valid.clone();
+        flipped[flipped.length - 6] ^= 0x01;
+        Files.write(path, flipped);
+        assertThrows(IOException.class, () -> store.load("world"));
+
+        for (int length = 0; length < valid.length; length++) {
+            Files.write(path, Arrays.copyOf(valid, length));
+            assertThrows(IOException.class, () -> store.load("world"), "truncated to " + length);
+        }
+    }
+
+    private static WorldSanitizerService.PendingScan pending(String worldName) {
+        return new WorldSanitizerService.PendingScan(
+            worldName,
+            "/saves/" + worldName,
+            new long[] {4L, -9L, 1L << 33},
+            new long[] {5L},
+            100,
+            3,
+            1,
+            12L,
+            "rules-1",
+            Instant.ofEpochMilli(1_700_000_000_000L)
+        );
+    }
+}
@@ -0,0 +1,79 @@
+package ca.nicecube.fixbadmod.scan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class RateMeterTest {
+    private static final long TICK_NANOS = 5_000_000_000L;
+    private static final double DECAY_PER_TICK = Math.exp(-5.0d / 60.0d);
+
+    private long nowNanos = 1_000L;
+    private final RateMeter meter = new RateMeter(() -> this.nowNanos);
+
+    @Test
+    void reportsZeroUntilTheFirstTick() {
+        this.meter.mark(500L);
+        this.nowNanos += TICK_NANOS - 1L;
+
+        assertEquals(0.0d, this.meter.rate(), 0.0d);
+    }
+
+    @Test
+    void firstTickTakesTheInstantRate() {
+        this.meter.mark(50L);
+        this.nowNanos += TICK_NANOS;
+
+        assertEquals(10.0d, this.meter.rate(), 1e-9d);
+    }
+
+    @Test
+    void laterTicksMoveTowardsTheNewRateByTheOneMinuteWeight() {
+        this.meter.mark(50L);
+        this.nowNanos += TICK_NANOS;
+        this.meter.rate();
+
+        this.meter.mark(100L);
+        this.nowNanos += TICK_NANOS;
+
+        double expected = 10.0d + (1.0d - DECAY_PER_TICK) * (20.0d - 10.0d);
+        assertEquals(expected, this.meter.rate(), 1e-9d);
+    }
+
+    @Test
+    void steadyInputConvergesOnItsRate() {
+        for (int tick = 0; tick < 200; tick++) {
+            this.meter.mark(tick == 0 ? 0L : 35L);
+            this.nowNanos += TICK_NANOS;
+            this.meter.rate();
+        }
+
+        assertEquals(7.0d, this.meter.rate(), 1e-3d);
+    }
+
+    @Test
+    void idleTicksAreCaughtUpInOneStep() {
+        this.meter.mark(50L);
+        this.nowNanos += TICK_NANOS;
+        assertEquals(10.0d, this.meter.rate(), 1e-9d);
+
+        // A minute with no calls at all: twelve ticks, all of them idle.
+        this.nowNanos += 12L * TICK_NANOS;
+
+        assertEquals(10.0d * Math.pow(DECAY_PER_TICK, 12.0d), this.meter.rate(), 1e-9d);
+    }
+
+    @Test
+    void eventsMarkedBeforeAGapCountForTheLatestTick() {
+        this.meter.mark(50L);
+        this.nowNanos += TICK_NANOS;
+        this.meter.rate();
+
+        this.meter.mark(100L);
+        this.nowNanos += 3L * TICK_NANOS + TICK_NANOS / 2L;
+
+        double decayed = 10.0d * DECAY_PER_TICK * DECAY_PER_TICK;
+        double expected = decayed + (1.0d - DECAY_PER_TICK) * (20.0d - decayed);
+        assertEquals(expected, this.meter.rate(), 1e-9d);
+    }
+}
@@ -0,0 +1,118 @@
+package ca.nicecube.fixbadmod.scan;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hypixel.hytale.math.util.ChunkUtil;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RegionFileIndexTest {
+    private static final int SLOT_COUNT = RegionFileIndex.REGION_SIZE * RegionFileIndex.REGION_SIZE;
+    private static final byte[] MAGIC = "HytaleIndexedStorage".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mapsOccupiedSlotsToChunkIndexesInSlotOrder() throws IOException {
+        Path regionFile = this.directory.resolve("-1.2.region.bin");
+        int[] slots = new int[SLOT_COUNT];
+        slots[0] = 1;
+        slots[31] = 2;
+        slots[32] = 3;
+        slots[SLOT_COUNT - 1] = 4;
+        Files.write(regionFile, header(SLOT_COUNT, slots));
+
+        assertArrayEquals(
+            new long[] {
+                ChunkUtil.indexChunk(-32, 64),
+                ChunkUtil.indexChunk(-1, 64),
+                ChunkUtil.indexChunk(-32, 65),
+                ChunkUtil.indexChunk(-1, 95)
+            },
+            RegionFileIndex.readOccupiedChunks(regionFile)
+        );
+    }
+
+    @Test
+    void readsOnlyTheSlotsTheHeaderDeclares() throws IOException {
+        Path regionFile = this.directory.resolve("0.0.region.bin");
+        int[] slots = new int[SLOT_COUNT];
+        slots[1] = 7;
+        slots[40] = 9;
+        Files.write(regionFile, header(8, slots));
+
+        assertArrayEquals(new long[] {ChunkUtil.indexChunk(1, 0)}, RegionFileIndex.readOccupiedChunks(regionFile));
+    }
+
+    @Test
+    void rejectsBrokenHeaders() throws IOException {
+        Path truncated = this.directory.resolve("0.0.region.bin");
+        Files.write(truncated, new byte[] {1, 2, 3});
+        assertThrows(IOException.class, () -> RegionFileIndex.readOccupiedChunks(truncated));
+
+        Path wrongMagic = this.directory.resolve("1.0.region.bin");
+        byte[] bytes = header(SLOT_COUNT, new int[SLOT_COUNT]);
+        bytes[0] = 'X';
+        Files.write(wrongMagic, bytes);
+        assertThrows(IOException.class, () -> RegionFileIndex.readOccupiedChunks(wrongMagic));
+
+        Path tooManyBlobs = this.directory.resolve("2.0.region.bin");
+        Files.write(tooManyBlobs, header(SLOT_COUNT + 1, new int[SLOT_COUNT]));
+        assertThrows(IOException.class, () -> RegionFileIndex.readOccupiedChunks(tooManyBlobs));
+    }
+
+    @Test
+    void recognisesRegionFileNames() throws IOException {
+        Path regionFile = Files.createFile(this.directory.resolve("-3.4.region.bin"));
+        Path other = Files.createFile(this.directory.resolve("3.4.region.bak"));
+
+        assertTrue(RegionFileIndex.isRegionFile(regionFile));
+        assertFalse(RegionFileIndex.isRegionFile(other));
+        assertFalse(RegionFileIndex.isRegionFile(this.directory.resolve("5.6.region.bin")));
+    }
+
+    @Test
+    void sortsRegionFilesRowMajor() {
+        List<Path> expected = List.of(
+            Path.of("chunks", "0.-2.region.bin"),
+            Path.of("chunks", "-10.-1.region.bin"),
+            Path.of("chunks", "-2.-1.region.bin"),
+            Path.of("chunks", "3.-1.region.bin"),
+            Path.of("chunks", "-1.0.region.bin"),
+            Path.of("chunks", "10.0.region.bin"),
+            Path.of("chunks", "0.99999999999.region.bin")
+        );
+        List<Path> shuffled = new ArrayList<>(expected);
+        Collections.reverse(shuffled);
+        Collections.swap(shuffled, 1, 4);
+
+        shuffled.sort(RegionFileIndex.ROW_MAJOR);
+
+        assertEquals(expected, shuffled);
+    }
+
+    private static byte[] header(int blobCount, int[] slots) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAGIC.length + 3 * Integer.BYTES + SLOT_COUNT * Integer.BYTES);
+        buffer.put(MAGIC);
+        buffer.putInt(1);
+        buffer.putInt(blobCount);
+        buffer.putInt(4096);
+        for (int slot : slots) {
+            buffer.putInt(slot);
+        }
+        return buffer.array();
+    }
+}
@@ -0,0 +1,105 @@
+package ca.nicecube.fixbadmod.scan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RuleMatcherTest {
+    @Test
+    void lowestOrdinalWinsAcrossModes() {
+        RuleMatcher matcher = RuleMatcher.builder()
+            .addContains("Crate", 2)
+            .addPrefix("OldMod_", 1)
+            .addExact("OldMod_Crate", 0)
+            .addPrefix("OldMod_Cr", 3)
+            .build();
+
+        assertEquals(0, matcher.firstMatch("OldMod_Crate"));
+        assertEquals(1, matcher.firstMatch("OldMod_Crates"));
+        assertEquals(2, matcher.firstMatch("Wood_Crate_Large"));
+        assertEquals(RuleMatcher.NO_MATCH, matcher.firstMatch("Wood_Log"));
+    }
+
+    @Test
+    void containsFollowsFailureLinks() {
+        RuleMatcher matcher = RuleMatcher.builder()
+            .addContains("abab", 0)
+            .addContains("bac", 1)
+            .addContains("c", 2)
+            .build();
+
+        assertEquals(1, matcher.firstMatch("abbac"));
+        assertEquals(0, matcher.firstMatch("ababac"));
+        assertEquals(0, matcher.firstMatch("aababab"));
+        assertEquals(2, matcher.firstMatch("abc"));
+        assertEquals(RuleMatcher.NO_MATCH, matcher.firstMatch("abba"));
+    }
+
+    @Test
+    void emptyPatternsMatchEveryId() {
+        assertEquals(4, RuleMatcher.builder().addPrefix("", 4).build().firstMatch("Anything"));
+        assertEquals(5, RuleMatcher.builder().addContains("", 5).build().firstMatch(""));
+        assertEquals(RuleMatcher.NO_MATCH, RuleMatcher.builder().addExact("", 6).build().firstMatch("x"));
+        assertEquals(RuleMatcher.NO_MATCH, RuleMatcher.builder().build().firstMatch("x"));
+    }
+
+    @Test
+    void agreesWithALinearScanOnRandomRules() {
+        Random random = new Random(42L);
+        RuleMode[] modes = RuleMode.values();
+        for (int round = 0; round < 200; round++) {
+            List<CompiledRule> rules = new ArrayList<>();
+            int ruleCount = 1 + random.nextInt(12);
+            for (int i = 0; i < ruleCount; i++) {
+                rules.add(new CompiledRule(modes[random.nextInt(modes.length)], word(random, 4), "Empty", true));
+            }
+
+            CompiledRuleSet ruleSet = new CompiledRuleSet(rules);
+            for (int lookup = 0; lookup < 50; lookup++) {
+                String id = word(random, 8);
+                assertEquals(linearFirstMatch(rules, id), ruleSet.resolve(id), id + " against " + describe(rules));
+            }
+        }
+    }
+
+    /**
+     * The matcher this class replaced: the first rule in config order whose pattern matches.
+     */
+    private static CompiledRule linearFirstMatch(List<CompiledRule> rules, String id) {
+        for (CompiledRule rule : rules) {
+            boolean matches = switch (rule.mode) {
+                case EXACT -> id.equals(rule.match);
+                case PREFIX -> id.startsWith(rule.match);
+                case CONTAINS -> id.contains(rule.match);
+            };
+            if (matches) {
+                return rule;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * A word of up to {@code maxLength} letters from a three-letter alphabet, so patterns overlap often.
+     */
+    private static String word(Random random, int maxLength) {
+        StringBuilder word = new StringBuilder();
+        int length = random.nextInt(maxLength + 1);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return word.toString();
+    }
+
+    private static String describe(List<CompiledRule> rules) {
+        StringBuilder text = new StringBuilder();
+        for (CompiledRule rule : rules) {
+            text.append(rule.mode).append(':').append(rule.match).append(' ');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package ca.nicecube.fixbadmod.scan;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Block-type registry for scanner tests: index {@code 0} is the empty block, every other id gets the next index the
+ * first time it is seen. {@link #missing(String)} registers a type whose asset is gone, the way a removed mod's
+ * block looks to the server.
+ */
+final class TestBlockTypes implements BlockTypeLookup {
+    static final String EMPTY_ID = "Empty";
+
+    private final List<String> ids = new ArrayList<>();
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private Object registry = new Object();
+
+    TestBlockTypes() {
+        this.indexOf(EMPTY_ID);
+    }
+
+    int indexOf(String blockId) {
+        Integer index = this.indexes.get(blockId);
+        if (index == null) {
+            index = this.ids.size();
+            this.ids.add(blockId);
+            this.indexes.put(blockId, index);
+        }
+        return index;
+    }
+
+    /**
+     * Index of a type that has no asset, keyed by {@code name} only inside this registry.
+     */
+    int missing(String name) {
+        int index = this.indexOf(name);
+        this.ids.set(index, null);
+        return index;
+    }
+
+    /**
+     * Replaces the registry instance, like an asset reload does.
+     */
+    void swap() {
+        this.registry = new Object();
+    }
+
+    @Override
+    public Object registry() {
+        return this.registry;
+    }
+
+    @Override
+    public Object asset(int blockTypeIndex) {
+        return blockTypeIndex < this.ids.size() ? this.ids.get(blockTypeIndex) : null;
+    }
+
+    @Override
+    public String idOf(Object asset) {
+        return (String) asset;
+    }
+
+    @Override
+    public String emptyBlockId() {
+        return EMPTY_ID;
+    }
+}
@@ -0,0 +1,130 @@
+package ca.nicecube.fixbadmod.scan;
+
+import com.hypixel.hytale.math.util.ChunkUtil;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Sparse {@link ChunkAccess} for scanner tests. Containers either hold items or throw the server's unknown-key error
+ * when their state is read.
+ */
+final class TestChunk implements ChunkAccess {
+    private static final int SECTION_HEIGHT = ChunkUtil.SIZE;
+
+    private final TestBlockTypes blockTypes;
+    private final Map<Integer, Integer> blocks = new HashMap<>();
+    private final Map<Integer, String[]> containers = new HashMap<>();
+    private final Map<Integer, String> brokenStates = new HashMap<>();
+
+    TestChunk(TestBlockTypes blockTypes) {
+        this.blockTypes = blockTypes;
+    }
+
+    void putBlock(int x, int y, int z, int blockTypeIndex) {
+        this.blocks.put(ChunkUtil.indexBlockInColumn(x, y, z), blockTypeIndex);
+    }
+
+    void putContainer(int x, int y, int z, int blockTypeIndex, String... items) {
+        this.putBlock(x, y, z, blockTypeIndex);
+        this.containers.put(ChunkUtil.indexBlockInColumn(x, y, z), items.clone());
+    }
+
+    /**
+     * Places a container whose state fails to decode on {@code unknownKey}.
+     */
+    void putBrokenContainer(int x, int y, int z, int blockTypeIndex, String unknownKey) {
+        this.putBlock(x, y, z, blockTypeIndex);
+        this.brokenStates.put(ChunkUtil.indexBlockInColumn(x, y, z), unknownKey);
+    }
+
+    @Override
+    public int getBlock(int x, int y, int z) {
+        return this.blocks.getOrDefault(ChunkUtil.indexBlockInColumn(x, y, z), 0);
+    }
+
+    @Override
+    public boolean setBlock(int x, int y, int z, String blockId) {
+        int blockTypeIndex = this.blockTypes.indexOf(blockId);
+        Integer previous = this.blocks.put(ChunkUtil.indexBlockInColumn(x, y, z), blockTypeIndex);
+        return previous == null || previous != blockTypeIndex;
+    }
+
+    @Override
+    public boolean forEachPaletteEntry(int sectionIndex, IntConsumer consumer) {
+        Set<Integer> palette = new HashSet<>();
+        palette.add(0);
+        int minY = ChunkUtil.MIN_Y + sectionIndex * SECTION_HEIGHT;
+        for (int y = minY; y < minY + SECTION_HEIGHT; y++) {
+            for (int z = 0; z < ChunkUtil.SIZE; z++) {
+                for (int x = 0; x < ChunkUtil.SIZE; x++) {
+                    palette.add(this.getBlock(x, y, z));
+                }
+            }
+        }
+        palette.forEach(consumer::accept);
+        return true;
+    }
+
+    @Override
+    public int[] componentBlockIndexes() {
+        Set<Integer> blockIndexes = new HashSet<>(this.containers.keySet());
+        blockIndexes.addAll(this.brokenStates.keySet());
+        return blockIndexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public String stateBlockId(int x, int y, int z) {
+        this.throwIfBroken(x, y, z);
+        return "";
+    }
+
+    @Override
+    public ItemSlots itemContainer(int x, int y, int z) {
+        this.throwIfBroken(x, y, z);
+        String[] items = this.containers.get(ChunkUtil.indexBlockInColumn(x, y, z));
+        if (items == null) {
+            return null;
+        }
+
+        return new ItemSlots() {
+            @Override
+            public int capacity() {
+                return items.length;
+            }
+
+            @Override
+            public String itemId(int slot) {
+                return items[slot];
+            }
+
+            @Override
+            public void clear(int slot) {
+                items[slot] = null;
+            }
+        };
+    }
+
+    @Override
+    public boolean clearBlockComponent(int x, int y, int z) {
+        int blockIndex = ChunkUtil.indexBlockInColumn(x, y, z);
+        boolean removed = this.containers.remove(blockIndex) != null;
+        return this.brokenStates.remove(blockIndex) != null || removed;
+    }
+
+    @Override
+    public void markNeedsSaving() {
+    }
+
+    private void throwIfBroken(int x, int y, int z) {
+        String unknownKey = this.brokenStates.get(ChunkUtil.indexBlockInColumn(x, y, z));
+        if (unknownKey != null) {
+            throw new IllegalStateException(
+                "Failed to decode block state",
+                new RuntimeException("Unknown key! " + unknownKey)
+            );
+        }
+    }
+}
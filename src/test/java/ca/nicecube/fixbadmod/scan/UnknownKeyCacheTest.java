@@ -0,0 +1,35 @@
+package ca.nicecube.fixbadmod.scan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class UnknownKeyCacheTest {
+    @Test
+    void countsOnlyLookupsThatHit() {
+        UnknownKeyCache cache = new UnknownKeyCache();
+
+        assertNull(cache.byBlockType(7));
+        cache.putBlockType(7, "OldMod_Crate");
+
+        assertEquals("OldMod_Crate", cache.byBlockType(7));
+        assertEquals("OldMod_Crate", cache.byBlockType(7));
+        assertNull(cache.byBlockType(8));
+        assertEquals(2L, cache.cacheHitCount.sum());
+    }
+
+    @Test
+    void clearForgetsKeysButKeepsCounters() {
+        UnknownKeyCache cache = new UnknownKeyCache();
+        cache.putBlockType(7, "OldMod_Crate");
+        cache.byBlockType(7);
+        cache.slowPathCount.increment();
+
+        cache.clear();
+
+        assertNull(cache.byBlockType(7));
+        assertEquals(1L, cache.cacheHitCount.sum());
+        assertEquals(1L, cache.slowPathCount.sum());
+    }
+}